@@ -0,0 +1,77 @@
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// Tiny client for AnalysisDaemon: sends every file over one connection and
+// prints each response body. Reads stdin when no files are given.
+// Exit status: 0 = all OK, 1 = some input had errors, 2 = usage or I/O problem.
+//
+// Usage: java AnalysisClient [--socket PATH] <arraylex|javasubset|ezlang> [file...]
+public class AnalysisClient {
+
+    public static void main(String[] args) throws IOException {
+        int a = 0;
+        Path socket = AnalysisDaemon.defaultSocket();
+        if (args.length > 1 && args[0].equals("--socket")) {
+            socket = Paths.get(args[1]);
+            a = 2;
+        }
+        if (args.length <= a) {
+            System.err.println("Usage: java AnalysisClient [--socket PATH] <arraylex|javasubset|ezlang> [file...]");
+            System.exit(2);
+        }
+        String language = args[a++];
+
+        int exit = 0;
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(socket));
+            OutputStream out = Channels.newOutputStream(channel);
+            DataInputStream in = new DataInputStream(Channels.newInputStream(channel));
+
+            if (a == args.length) {
+                exit = Math.max(exit, send(out, in, language, System.in.readAllBytes(), null));
+            }
+            boolean many = args.length - a > 1; // label each body when there are several
+            for (; a < args.length; a++) {
+                exit = Math.max(exit, send(out, in, language, Files.readAllBytes(Paths.get(args[a])), many ? args[a] : null));
+            }
+        } catch (IOException e) {
+            System.err.println("Cannot reach AnalysisDaemon at " + socket + ": " + e.getMessage());
+            System.exit(2);
+        }
+        System.exit(exit);
+    }
+
+    private static int send(OutputStream out, DataInputStream in, String language, byte[] source, String name) throws IOException {
+        out.write((language + " " + source.length + "\n").getBytes(StandardCharsets.UTF_8));
+        out.write(source);
+        out.flush();
+
+        String[] header = readLine(in).split(" ");
+        byte[] body = new byte[Integer.parseInt(header[1])];
+        in.readFully(body);
+
+        if (name != null) System.out.println("=== " + name + " (" + header[0] + ")");
+        System.out.print(new String(body, StandardCharsets.UTF_8));
+        System.out.flush();
+        if (header[0].equals("OK")) return 0;
+        return header[0].equals("ERROR") ? 1 : 2;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') line.append((char) b);
+        if (b == -1) throw new IOException("daemon closed the connection");
+        return line.toString();
+    }
+}
@@ -0,0 +1,174 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Long-lived analysis server on a Unix domain socket, so small files do not
+// pay for a JVM start each. Every connection is served on its own virtual
+// thread (JDK 21+; older JDKs fall back to a cached thread pool) and may
+// send any number of requests. Scanners stay JIT-compiled between requests
+// and recent ArrayLex/Java-subset results are cached by source text.
+//
+// Protocol (plain text, so 'nc -U' works too):
+//   request:  "<arraylex|javasubset|ezlang> <byteCount>\n" + UTF-8 source
+//   response: "<OK|ERROR|BAD_REQUEST> <byteCount>\n" + UTF-8 body
+// Bodies: ArrayLex tokens ("TYPE : value" per line); Java-subset table rows
+// ("TYPE<tab>value") then "! Title: message" per dialog; EzLang program
+// output, ending in "RUNTIME ERROR:" and the message if it failed.
+// EzLang 'load' paths are resolved against the daemon's working directory.
+//
+// Usage: java AnalysisDaemon [socketPath]   (client: AnalysisClient)
+public class AnalysisDaemon {
+
+    public static final String DEFAULT_SOCKET = "lexicanalyze.sock";
+
+    private static final int MAX_REQUEST_BYTES = 256 << 20;
+    private static final int MAX_CACHED_SOURCE = 64 << 10;
+    private static final int CACHE_ENTRIES = 256;
+
+    private final JavaSubsetAnalyzer javaSubset = new JavaSubsetAnalyzer();
+
+    // Key = language + '\0' + source, value = {status, body}
+    private final Map<String, String[]> cache = Collections.synchronizedMap(
+        new LinkedHashMap<String, String[]>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String[]> eldest) {
+                return size() > CACHE_ENTRIES;
+            }
+        });
+
+    public static Path defaultSocket() {
+        return Paths.get(System.getProperty("java.io.tmpdir"), DEFAULT_SOCKET);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path socket = args.length > 0 ? Paths.get(args[0]) : defaultSocket();
+        new AnalysisDaemon().serve(socket);
+    }
+
+    public void serve(Path socket) throws IOException {
+        warmUp();
+        Files.deleteIfExists(socket); // left over from a daemon that was killed
+        ExecutorService executor = newExecutor();
+
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try { Files.deleteIfExists(socket); } catch (IOException e) { }
+            }));
+            System.out.println("AnalysisDaemon listening on " + socket);
+
+            while (true) {
+                SocketChannel client = server.accept();
+                executor.execute(() -> handle(client));
+            }
+        } finally {
+            executor.shutdownNow();
+            Files.deleteIfExists(socket);
+        }
+    }
+
+    // Virtual thread per task when the JDK has them (looked up reflectively
+    // so the daemon still builds and runs on JDK 17)
+    static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "analysis-worker");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    // === CONNECTION ===
+
+    private void handle(SocketChannel client) {
+        try (SocketChannel channel = client;
+             InputStream in = new BufferedInputStream(Channels.newInputStream(channel));
+             OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel))) {
+            String header;
+            while ((header = readLine(in)) != null) {
+                String[] parts = header.trim().split(" ");
+                int length = -1;
+                if (parts.length == 2) {
+                    try { length = Integer.parseInt(parts[1]); } catch (NumberFormatException e) { }
+                }
+                if (length < 0 || length > MAX_REQUEST_BYTES) {
+                    respond(out, "BAD_REQUEST", "Expected \"<language> <byteCount>\", got \"" + header + "\"");
+                    return;
+                }
+                byte[] body = in.readNBytes(length);
+                if (body.length < length) return; // client went away mid-request
+                String[] response = analyze(parts[0], new String(body, StandardCharsets.UTF_8));
+                respond(out, response[0], response[1]);
+            }
+        } catch (IOException e) {
+            // Connection reset by the client; nothing to answer
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            line.write(b);
+            if (line.size() > 1024) break; // no valid header is this long
+        }
+        if (b == -1 && line.size() == 0) return null;
+        return line.toString(StandardCharsets.UTF_8);
+    }
+
+    private static void respond(OutputStream out, String status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        out.write((status + " " + bytes.length + "\n").getBytes(StandardCharsets.UTF_8));
+        out.write(bytes);
+        out.flush();
+    }
+
+    // === ANALYSIS ===
+
+    // Returns {status, body}
+    public String[] analyze(String language, String source) {
+        boolean cacheable = !language.equals("ezlang") && source.length() <= MAX_CACHED_SOURCE;
+        String key = cacheable ? language + '\0' + source : null;
+        if (cacheable) {
+            String[] hit = cache.get(key);
+            if (hit != null) return hit;
+        }
+
+        String[] result = HeadlessAnalysis.analyze(language, javaSubset, source);
+        if (result == null) return new String[]{"BAD_REQUEST", HeadlessAnalysis.unknownLanguage(language)};
+        if (cacheable) cache.put(key, result);
+        return result;
+    }
+
+    // Load and JIT the hot paths before the first client shows up
+    private void warmUp() {
+        String java = "int[] a = {1, 2, 3}; String s = \"x\"; // warm";
+        String ez = "make list d := [5, 12, 3]\nloop i from 0 to 3 {\n if (d[i] > 4) {\n print d[i]\n }\n}\n";
+        for (int k = 0; k < 2000; k++) {
+            HeadlessAnalysis.arrayLex(java);
+            HeadlessAnalysis.javaSubset(javaSubset, java);
+            HeadlessAnalysis.ezLang(ez);
+        }
+        AnalysisMetrics.get().reset(); // JMX should only count real requests
+    }
+}
@@ -0,0 +1,121 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Java Flight Recorder events for the lexers and the EzLang runtime.
+// Record with: java -XX:StartFlightRecording:filename=run.jfr ...
+// and look for the "Lexicanalyze" category in JMC or `jfr print`.
+// Until a recording is started the JVM leaves these events uninstrumented,
+// so begin()/commit() cost next to nothing.
+public class AnalysisEvents {
+
+    @Name("lexicanalyze.Lex")
+    @Label("Lexing")
+    @Category("Lexicanalyze")
+    @StackTrace(false)
+    public static class LexEvent extends Event {
+        @Label("Lexer") String lexer;
+        @Label("Source Bytes") @DataAmount long bytes;
+        @Label("Tokens") long tokens;
+        @Label("Error Kind") String errorKind;
+    }
+
+    @Name("lexicanalyze.Validate")
+    @Label("Validation Pass")
+    @Category("Lexicanalyze")
+    @StackTrace(false)
+    public static class ValidationEvent extends Event {
+        @Label("Rule") String rule;
+        @Label("Tokens") int tokens;
+        @Label("Error Kind") String errorKind;
+        @Label("Message") String message;
+    }
+
+    @Name("lexicanalyze.EzPhase")
+    @Label("EzLang Phase")
+    @Category("Lexicanalyze")
+    @StackTrace(false)
+    public static class EzPhaseEvent extends Event {
+        @Label("Interpreter") String interpreter;
+        @Label("Phase") String phase;
+        @Label("Source Bytes") @DataAmount long bytes;
+        @Label("Tokens") int tokens;
+        @Label("Steps") long steps;
+        @Label("Error Kind") String errorKind;
+        @Label("Message") String message;
+    }
+
+    // === HELPERS (fields are only filled in when the event will be kept) ===
+
+    public static LexEvent startLex() {
+        LexEvent event = new LexEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void endLex(LexEvent event, String lexer, CharSequence source, int tokens, String errorKind) {
+        endLex(event, lexer, utf8Length(source), tokens, errorKind);
+    }
+
+    public static void endLex(LexEvent event, String lexer, long bytes, long tokens, String errorKind) {
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.lexer = lexer;
+        event.bytes = bytes;
+        event.tokens = tokens;
+        event.errorKind = errorKind;
+        event.commit();
+    }
+
+    public static ValidationEvent startValidation() {
+        ValidationEvent event = new ValidationEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void endValidation(ValidationEvent event, String rule, int tokens, String error) {
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.rule = rule;
+        event.tokens = tokens;
+        event.errorKind = error == null ? null : rule;
+        event.message = error;
+        event.commit();
+    }
+
+    public static EzPhaseEvent startEzPhase() {
+        EzPhaseEvent event = new EzPhaseEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void endEzPhase(EzPhaseEvent event, String interpreter, String phase, CharSequence source,
+                                  int tokens, long steps, Exception error) {
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.interpreter = interpreter;
+        event.phase = phase;
+        event.bytes = source == null ? 0 : utf8Length(source);
+        event.tokens = tokens;
+        event.steps = steps;
+        event.errorKind = error == null ? null : error.getClass().getSimpleName();
+        event.message = error == null ? null : error.getMessage();
+        event.commit();
+    }
+
+    // Encoded size without actually encoding
+    static long utf8Length(CharSequence s) {
+        long bytes = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) bytes += 1;
+            else if (c < 0x800) bytes += 2;
+            else if (Character.isSurrogate(c)) bytes += 2; // a pair is 4 bytes
+            else bytes += 3;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,128 @@
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+
+// JMX metrics behind AnalysisMetricsMXBean. Every counter is a LongAdder so
+// runs on different threads never contend on one cache line. Callers add
+// per-run totals once at the end of a run instead of once per event.
+public class AnalysisMetrics implements AnalysisMetricsMXBean {
+
+    private static final int LATENCY_BUCKETS = 32;
+    private static final AnalysisMetrics INSTANCE = register(new AnalysisMetrics());
+
+    private final LongAdder bytesLexed = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder> tokensByKind = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> validationErrors = new ConcurrentHashMap<>();
+    private final LongAdder interpreterSteps = new LongAdder();
+    private final LongAdder variableLookups = new LongAdder();
+    private final LongAdder listAccesses = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder[]> latency = new ConcurrentHashMap<>();
+
+    public static AnalysisMetrics get() {
+        return INSTANCE;
+    }
+
+    // -Dlexicanalyze.jmx=false skips the MBean server (and its startup cost)
+    private static AnalysisMetrics register(AnalysisMetrics metrics) {
+        if ("false".equals(System.getProperty("lexicanalyze.jmx"))) return metrics;
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                .registerMBean(metrics, new ObjectName("lexicanalyze:type=AnalysisMetrics"));
+        } catch (Exception e) {
+            // Metrics still count; they just are not visible over JMX
+        }
+        return metrics;
+    }
+
+    // === RECORDING ===
+
+    public void lexed(long bytes) {
+        bytesLexed.add(bytes);
+    }
+
+    public void tokens(String frontEnd, String kind, long count) {
+        if (count == 0) return;
+        tokensByKind.computeIfAbsent(frontEnd + "." + kind, k -> new LongAdder()).add(count);
+    }
+
+    public void validationError(String rule) {
+        validationErrors.computeIfAbsent(rule, k -> new LongAdder()).increment();
+    }
+
+    public void interpreted(long steps, long lookups, long accesses) {
+        interpreterSteps.add(steps);
+        variableLookups.add(lookups);
+        listAccesses.add(accesses);
+    }
+
+    public void run(String frontEnd, long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        int bucket = Math.min(LATENCY_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        latency.computeIfAbsent(frontEnd, k -> newBuckets())[bucket].increment();
+    }
+
+    private static LongAdder[] newBuckets() {
+        LongAdder[] buckets = new LongAdder[LATENCY_BUCKETS];
+        for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+        return buckets;
+    }
+
+    // === MXBEAN ATTRIBUTES ===
+
+    @Override public long getBytesLexed() { return bytesLexed.sum(); }
+    @Override public long getInterpreterSteps() { return interpreterSteps.sum(); }
+    @Override public long getVariableLookups() { return variableLookups.sum(); }
+    @Override public long getListAccesses() { return listAccesses.sum(); }
+
+    @Override
+    public Map<String, Long> getTokensByKind() {
+        return snapshot(tokensByKind);
+    }
+
+    @Override
+    public Map<String, Long> getValidationErrorsByRule() {
+        return snapshot(validationErrors);
+    }
+
+    @Override
+    public Map<String, Long> getRuns() {
+        Map<String, Long> runs = new TreeMap<>();
+        for (Map.Entry<String, LongAdder[]> e : latency.entrySet()) {
+            long total = 0;
+            for (LongAdder b : e.getValue()) total += b.sum();
+            runs.put(e.getKey(), total);
+        }
+        return runs;
+    }
+
+    @Override
+    public Map<String, long[]> getLatencyHistograms() {
+        Map<String, long[]> histograms = new TreeMap<>();
+        for (Map.Entry<String, LongAdder[]> e : latency.entrySet()) {
+            long[] counts = new long[LATENCY_BUCKETS];
+            for (int i = 0; i < counts.length; i++) counts[i] = e.getValue()[i].sum();
+            histograms.put(e.getKey(), counts);
+        }
+        return histograms;
+    }
+
+    @Override
+    public void reset() {
+        bytesLexed.reset();
+        interpreterSteps.reset();
+        variableLookups.reset();
+        listAccesses.reset();
+        tokensByKind.clear();
+        validationErrors.clear();
+        latency.clear();
+    }
+
+    private static Map<String, Long> snapshot(ConcurrentHashMap<String, LongAdder> counters) {
+        Map<String, Long> copy = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> e : counters.entrySet()) copy.put(e.getKey(), e.getValue().sum());
+        return copy;
+    }
+}
@@ -0,0 +1,28 @@
+import java.util.Map;
+
+// Live counters for the lexers and the EzLang runtime, registered as
+// lexicanalyze:type=AnalysisMetrics on the platform MBean server.
+// Token kinds and run names are prefixed with the front-end
+// ("ArrayLex", "JavaSubset", "EzLang").
+public interface AnalysisMetricsMXBean {
+
+    long getBytesLexed();
+
+    Map<String, Long> getTokensByKind();
+
+    Map<String, Long> getValidationErrorsByRule();
+
+    long getInterpreterSteps();
+
+    long getVariableLookups();
+
+    long getListAccesses();
+
+    Map<String, Long> getRuns();
+
+    // Per front-end: element k counts runs that took less than 2^k
+    // microseconds (and at least 2^(k-1)); the last element is open-ended
+    Map<String, long[]> getLatencyHistograms();
+
+    void reset();
+}
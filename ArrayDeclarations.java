@@ -0,0 +1,246 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// ArrayLex as a data format: lexes and parses declarations of the shape
+//   <int|long> [ ] name = { n, n, ... } ;
+// in one pass and decodes every element straight into a growing int[] or
+// long[]. The scanner hands over spans and values, the parser is a state
+// machine on top of it, so no token or String is made per element; only
+// the type and name of each declaration are materialized. Values that do
+// not fit the element type are an error, as is anything off the shape.
+//
+// Input is a String (generated ArrayLexScanner) or UTF-8 bytes (LexerEngine,
+// including its SWAR path for number lists).
+//
+// Usage: java ArrayDeclarations file...   (prints name, type, length and sum)
+public class ArrayDeclarations {
+
+    public static class Declaration {
+        public final String type;   // "int" or "long"
+        public final String name;
+        public final int[] ints;    // set for int[] declarations
+        public final long[] longs;  // set for long[] declarations
+        public final int line;
+
+        Declaration(String type, String name, int[] ints, long[] longs, int line) {
+            this.type = type;
+            this.name = name;
+            this.ints = ints;
+            this.longs = longs;
+            this.line = line;
+        }
+
+        public int length() {
+            return ints != null ? ints.length : longs.length;
+        }
+
+        public long get(int i) {
+            return ints != null ? ints[i] : longs[i];
+        }
+    }
+
+    public static class ParseException extends Exception {
+        private static final long serialVersionUID = 1L;
+        public ParseException(String message) { super(message); }
+    }
+
+    private static final LexerEngine UTF8_LEXER = LexerGrammars.arrayLex().compile();
+
+    public static List<Declaration> parse(String source) throws ParseException {
+        Parser parser = new Parser() {
+            @Override String text(int start, int end) { return source.substring(start, end); }
+            @Override int digit(int i) { return source.charAt(i) - '0'; }
+        };
+        ArrayLexScanner.scan(source, parser);
+        return parser.finish();
+    }
+
+    // Positions in error messages are lines; the buffer is not modified
+    public static List<Declaration> parse(ByteBuffer utf8) throws ParseException {
+        Parser parser = new Parser() {
+            @Override String text(int start, int end) { return LexerEngine.decode(utf8, start, end); }
+            @Override int digit(int i) { return utf8.get(i) - '0'; }
+        };
+        UTF8_LEXER.scan(utf8, parser);
+        return parser.finish();
+    }
+
+    public static List<Declaration> parse(Path file) throws IOException, ParseException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // === PARSER ===
+
+    private enum State { TYPE, L_BRACKET, R_BRACKET, NAME, EQUALS, L_BRACE, FIRST_ELEMENT, ELEMENT, COMMA, SEMICOLON }
+
+    private abstract static class Parser implements LexerEngine.Sink {
+        final List<Declaration> declarations = new ArrayList<>();
+        String error;
+        int line = 1;
+
+        State state = State.TYPE;
+        String type;
+        String name;
+        int declarationLine;
+        boolean longs;
+        int[] intValues;
+        long[] longValues;
+        int size;
+
+        abstract String text(int start, int end);
+        // ASCII digit value of the char or byte at i
+        abstract int digit(int i);
+
+        @Override public boolean symbol(char c, int pos, int line) {
+            this.line = line;
+            switch (state) {
+                case L_BRACKET: return expect(c == '[', "'['", c, State.R_BRACKET);
+                case R_BRACKET: return expect(c == ']', "']'", c, State.NAME);
+                case EQUALS: return expect(c == '=', "'='", c, State.L_BRACE);
+                case L_BRACE:
+                    if (c != '{') return fail("expected '{'", c);
+                    size = 0;
+                    if (longs) longValues = new long[16];
+                    else intValues = new int[16];
+                    state = State.FIRST_ELEMENT;
+                    return true;
+                case FIRST_ELEMENT:
+                case COMMA:
+                    if (c == '}') {
+                        state = State.SEMICOLON;
+                        return true;
+                    }
+                    return expect(c == ',' && state == State.COMMA, "a number or '}'", c, State.ELEMENT);
+                case SEMICOLON:
+                    if (c != ';') return fail("expected ';'", c);
+                    declarations.add(new Declaration(type, name,
+                            longs ? null : Arrays.copyOf(intValues, size),
+                            longs ? Arrays.copyOf(longValues, size) : null, declarationLine));
+                    intValues = null;
+                    longValues = null;
+                    state = State.TYPE;
+                    return true;
+                default:
+                    return fail("expected " + expected(), c);
+            }
+        }
+
+        @Override public boolean number(int start, int end, long value, int line) {
+            this.line = line;
+            if (state != State.FIRST_ELEMENT && state != State.ELEMENT) return fail("expected " + expected() + ", found number " + text(start, end));
+            if (longs) {
+                if (value < 0) value = longValue(start, end);
+                if (value < 0) return fail("Value " + text(start, end) + " does not fit in long");
+                if (size == longValues.length) longValues = Arrays.copyOf(longValues, size * 2);
+                longValues[size++] = value;
+            } else {
+                if (value < 0) return fail("Value " + text(start, end) + " does not fit in int");
+                if (size == intValues.length) intValues = Arrays.copyOf(intValues, size * 2);
+                intValues[size++] = (int) value;
+            }
+            state = State.COMMA;
+            return true;
+        }
+
+        @Override public boolean word(int start, int end, int keyword, int line) {
+            this.line = line;
+            if (state == State.TYPE) {
+                type = text(start, end);
+                if (!type.equals("int") && !type.equals("long")) return fail("expected int or long, found '" + type + "'");
+                longs = type.equals("long");
+                declarationLine = line;
+                state = State.L_BRACKET;
+                return true;
+            }
+            if (state == State.NAME && keyword < 0) {
+                name = text(start, end);
+                state = State.EQUALS;
+                return true;
+            }
+            return fail("expected " + expected() + ", found '" + text(start, end) + "'");
+        }
+
+        @Override public boolean unknown(int codePoint, int pos, int line) {
+            this.line = line;
+            return fail("Unexpected character '" + Character.toString(codePoint) + "'");
+        }
+
+        // Only called past int range; -1 if it does not fit in a long either
+        private long longValue(int start, int end) {
+            long value = 0;
+            for (int i = start; i < end; i++) {
+                int d = digit(i);
+                if (d < 0 || d > 9) return -1; // a non-ASCII digit
+                if (value > (Long.MAX_VALUE - d) / 10) return -1;
+                value = value * 10 + d;
+            }
+            return value;
+        }
+
+        private boolean expect(boolean ok, String what, char found, State next) {
+            if (!ok) return fail("expected " + what, found);
+            state = next;
+            return true;
+        }
+
+        private boolean fail(String what, char found) {
+            return fail(Character.toUpperCase(what.charAt(0)) + what.substring(1) + ", found '" + found + "'");
+        }
+
+        private boolean fail(String message) {
+            error = "Line " + line + ": " + Character.toUpperCase(message.charAt(0)) + message.substring(1);
+            return false;
+        }
+
+        private String expected() {
+            switch (state) {
+                case TYPE: return "int or long";
+                case L_BRACKET: return "'['";
+                case R_BRACKET: return "']'";
+                case NAME: return "a name";
+                case EQUALS: return "'='";
+                case L_BRACE: return "'{'";
+                case FIRST_ELEMENT: return "a number or '}'";
+                case ELEMENT: return "a number";
+                case COMMA: return "',' or '}'";
+                default: return "';'";
+            }
+        }
+
+        List<Declaration> finish() throws ParseException {
+            if (error == null && state != State.TYPE) fail("Unexpected end of input, expected " + expected());
+            if (error != null) throw new ParseException(error);
+            return declarations;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: java ArrayDeclarations file...");
+            System.exit(2);
+        }
+        int exit = 0;
+        for (String file : args) {
+            try {
+                for (Declaration d : parse(Paths.get(file))) {
+                    long sum = 0;
+                    for (int i = 0; i < d.length(); i++) sum += d.get(i);
+                    System.out.printf("%s:%d %s[] %s  length %d  sum %d%n", file, d.line, d.type, d.name, d.length(), sum);
+                }
+            } catch (ParseException e) {
+                System.out.println(file + ": " + e.getMessage());
+                exit = 1;
+            }
+        }
+        System.exit(exit);
+    }
+}
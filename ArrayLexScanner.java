@@ -0,0 +1,144 @@
+// GENERATED by ScannerGenerator from LexerGrammars.arrayLex() - do not edit.
+// Regenerate with: java ScannerGenerator .
+public final class ArrayLexScanner {
+
+    private ArrayLexScanner() {}
+
+    // ASCII whitespace, bit c set for char c (all of it is below 64)
+    private static final long SPACE_BITS = 0x1f0003e00L;
+
+    public static boolean scan(String input, LexerEngine.Sink sink) {
+        int n = input.length();
+        int i = 0;
+        int line = 1;
+
+        while (i < n) {
+            char c = input.charAt(i);
+
+            switch (c) {
+                case '\t': case '\n': case 11: case 12: case '\r': case 28: case 29: case 30:
+                case 31: case ' ':
+                    if (c == '\n') {
+                        line++;
+                        sink.newline(i);
+                    }
+                    i++;
+                    while (i < n && (c = input.charAt(i)) < 64 && (SPACE_BITS >>> c & 1) != 0) {
+                        if (c == '\n') {
+                            line++;
+                            sink.newline(i);
+                        }
+                        i++;
+                    }
+                    continue;
+                case ',': case ';': case '=': case '[': case ']': case '{': case '}':
+                    if (!sink.symbol(c, i, line)) return false;
+                    i++;
+                    continue;
+                case '0': case '1': case '2': case '3': case '4': case '5': case '6': case '7':
+                case '8': case '9':
+                    i = number(input, i, line, sink);
+                    if (i < 0) return false;
+                    continue;
+                case 'A': case 'B': case 'C': case 'D': case 'E': case 'F': case 'G': case 'H':
+                case 'I': case 'J': case 'K': case 'L': case 'M': case 'N': case 'O': case 'P':
+                case 'Q': case 'R': case 'S': case 'T': case 'U': case 'V': case 'W': case 'X':
+                case 'Y': case 'Z': case 'a': case 'b': case 'c': case 'd': case 'e': case 'f':
+                case 'g': case 'h': case 'i': case 'j': case 'k': case 'l': case 'm': case 'n':
+                case 'o': case 'p': case 'q': case 'r': case 's': case 't': case 'u': case 'v':
+                case 'w': case 'x': case 'y': case 'z':
+                    i = word(input, i, line, sink);
+                    if (i < 0) return false;
+                    continue;
+                default:
+                    if (c >= 128) {
+                        // Code-point path, so a surrogate pair is classified as one character
+                        int cp = input.codePointAt(i);
+                        if (Character.isWhitespace(cp)) { i += Character.charCount(cp); continue; }
+                        if (Character.isDigit(cp)) { i = number(input, i, line, sink); if (i < 0) return false; continue; }
+                        if (Character.isLetter(cp)) { i = word(input, i, line, sink); if (i < 0) return false; continue; }
+                        if (!sink.unknown(cp, i, line)) return false;
+                        i += Character.charCount(cp);
+                        continue;
+                    }
+                    if (!sink.unknown(c, i, line)) return false;
+                    i++;
+                    continue;
+            }
+        }
+        return true;
+    }
+
+    // value = decoded integer, or -1 if it does not fit in an int
+    private static int number(String input, int i, int line, LexerEngine.Sink sink) {
+        int n = input.length();
+        int start = i;
+        long value = 0;
+        while (i < n) {
+            char d = input.charAt(i);
+            int digit;
+            int len = 1;
+            if (d >= '0' && d <= '9') {
+                digit = d - '0';
+            } else if (d < 128) {
+                break;
+            } else {
+                int cp = input.codePointAt(i);
+                if (!Character.isDigit(cp)) break;
+                digit = Character.digit(cp, 10);
+                len = Character.charCount(cp);
+            }
+            if (value >= 0) {
+                value = value * 10 + digit;
+                if (value > Integer.MAX_VALUE) value = -1;
+            }
+            i += len;
+        }
+        return sink.number(start, i, value, line) ? i : -1;
+    }
+
+    private static final long WORD_PART_LO = 0x3ff000000000000L;
+    private static final long WORD_PART_HI = 0x7fffffe07fffffeL;
+
+    private static int word(String input, int i, int line, LexerEngine.Sink sink) {
+        int n = input.length();
+        int start = i;
+        while (i < n) {
+            char c = input.charAt(i);
+            if (c < 128) {
+                // The shift distance is masked to 6 bits, so c selects its bit in either half
+                if (((c < 64 ? WORD_PART_LO : WORD_PART_HI) >>> c & 1) == 0) break;
+                i++;
+            } else {
+                int cp = input.codePointAt(i);
+                if (!Character.isLetterOrDigit(cp)) break;
+                i += Character.charCount(cp);
+            }
+        }
+        return sink.word(start, i, keyword(input, start, i - start), line) ? i : -1;
+    }
+
+    // Index into the grammar's keyword list, or -1
+    private static int keyword(String s, int start, int length) {
+        switch (length) {
+            case 3:
+                switch (s.charAt(start)) {
+                    case 'i':
+                        if (s.charAt(start + 1) == 'n' && s.charAt(start + 2) == 't') return 0;
+                        return -1;
+                    case 'n':
+                        if (s.charAt(start + 1) == 'e' && s.charAt(start + 2) == 'w') return 1;
+                        return -1;
+                }
+                return -1;
+            case 6:
+                switch (s.charAt(start)) {
+                    case 'S':
+                        if (s.charAt(start + 1) == 't' && s.charAt(start + 2) == 'r' && s.charAt(start + 3) == 'i' && s.charAt(start + 4) == 'n' && s.charAt(start + 5) == 'g') return 2;
+                        return -1;
+                }
+                return -1;
+        }
+        return -1;
+    }
+}
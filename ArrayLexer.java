@@ -1,4 +1,10 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class ArrayLexer {
@@ -22,12 +28,19 @@ public class ArrayLexer {
     public static class Token {
         public TokenType type;
         public String value;
+        // NUMBER tokens: the value from the scanner, or -1 if it does not fit in an int
+        public long number = -1;
 
         public Token(TokenType type, String value) {
             this.type = type;
             this.value = value;
         }
 
+        public Token(TokenType type, String value, long number) {
+            this(type, value);
+            this.number = number;
+        }
+
         @Override
         public String toString() {
             // Formatting for cleaner output
@@ -37,79 +50,299 @@ public class ArrayLexer {
 
     // 3. The Lexer Function for Array Strings
     public static ArrayList<Token> analyzeArraySource(String source) {
-        ArrayList<Token> tokens = new ArrayList<>();
-        int length = source.length();
-        int i = 0;
+        long startNanos = System.nanoTime();
+        AnalysisEvents.LexEvent event = AnalysisEvents.startLex();
+        ArrayList<Token> tokens = scan(source);
 
-        while (i < length) {
-            char c = source.charAt(i);
+        // Per-kind counts for JMX, also tells us if there was an UNKNOWN
+        long[] counts = new long[TokenType.values().length];
+        for (Token t : tokens) counts[t.type.ordinal()]++;
+        String errorKind = counts[TokenType.UNKNOWN.ordinal()] > 0 ? "UNKNOWN_CHARACTER" : null;
+        AnalysisEvents.endLex(event, "ArrayLex", source, tokens.size(), errorKind);
 
-            // Skip Whitespace
-            if (Character.isWhitespace(c)) {
-                i++;
-                continue;
-            }
+        AnalysisMetrics metrics = AnalysisMetrics.get();
+        metrics.lexed(AnalysisEvents.utf8Length(source));
+        for (TokenType type : TokenType.values()) metrics.tokens("ArrayLex", type.name(), counts[type.ordinal()]);
+        metrics.run("ArrayLex", System.nanoTime() - startNanos);
+        return tokens;
+    }
+
+    // Grammar: LexerGrammars.arrayLex(), scanned by the generated ArrayLexScanner
+    private static ArrayList<Token> scan(String source) {
+        ArrayList<Token> tokens = new ArrayList<>();
 
+        ArrayLexScanner.scan(source, new LexerEngine.Sink() {
             // Handle Array Symbols (The core requirement)
-            switch (c) {
-                case '[':
-                    tokens.add(new Token(TokenType.L_BRACKET, "["));
-                    i++; continue;
-                case ']':
-                    tokens.add(new Token(TokenType.R_BRACKET, "]"));
-                    i++; continue;
-                case '{':
-                    tokens.add(new Token(TokenType.L_BRACE, "{"));
-                    i++; continue;
-                case '}':
-                    tokens.add(new Token(TokenType.R_BRACE, "}"));
-                    i++; continue;
-                case ',':
-                    tokens.add(new Token(TokenType.COMMA, ","));
-                    i++; continue;
-                case '=':
-                    tokens.add(new Token(TokenType.EQUALS, "="));
-                    i++; continue;
-                case ';':
-                    tokens.add(new Token(TokenType.SEMICOLON, ";"));
-                    i++; continue;
+            @Override public boolean symbol(char c, int pos, int line) {
+                tokens.add(new Token(symbolType(c), Character.toString(c)));
+                return true;
             }
 
             // Handle Numbers (Array indices or values)
-            if (Character.isDigit(c)) {
-                StringBuilder sb = new StringBuilder();
-                while (i < length && Character.isDigit(source.charAt(i))) {
-                    sb.append(source.charAt(i));
-                    i++;
-                }
-                tokens.add(new Token(TokenType.NUMBER, sb.toString()));
-                continue;
+            @Override public boolean number(int start, int end, long value, int line) {
+                tokens.add(new Token(TokenType.NUMBER, source.substring(start, end), value));
+                return true;
             }
 
             // Handle Keywords and Identifiers (e.g., "int", "arr")
-            if (Character.isLetter(c)) {
-                StringBuilder sb = new StringBuilder();
-                while (i < length && (Character.isLetterOrDigit(source.charAt(i)))) {
-                    sb.append(source.charAt(i));
-                    i++;
-                }
-                String word = sb.toString();
-                if (word.equals("int") || word.equals("new") || word.equals("String")) {
-                    tokens.add(new Token(TokenType.KEYWORD, word));
-                } else {
-                    tokens.add(new Token(TokenType.IDENTIFIER, word));
-                }
-                continue;
+            @Override public boolean word(int start, int end, int keyword, int line) {
+                tokens.add(new Token(keyword >= 0 ? TokenType.KEYWORD : TokenType.IDENTIFIER, source.substring(start, end)));
+                return true;
             }
 
             // Unknown Character
-            tokens.add(new Token(TokenType.UNKNOWN, Character.toString(c)));
-            i++;
+            @Override public boolean unknown(int codePoint, int pos, int line) {
+                tokens.add(new Token(TokenType.UNKNOWN, Character.toString(codePoint)));
+                return true;
+            }
+        });
+
+        return tokens;
+    }
+
+    // === UTF-8 INPUT ===
+    // For files: the bytes are scanned as they are (LexerEngine's UTF-8 path,
+    // same grammar), so there is no decoded copy of the source and no Token
+    // object per token. Offsets are byte offsets into the buffer.
+
+    private static final LexerEngine UTF8_LEXER = LexerGrammars.arrayLex().compile();
+
+    // Token kinds, byte spans and number values in parallel arrays; text(i)
+    // decodes only that token. Keeps a reference to the buffer, so it must
+    // not be reused.
+    public static class Utf8Tokens {
+        private static final TokenType[] TYPES = TokenType.values();
+
+        public final ByteBuffer source;
+        private byte[] types = new byte[256];
+        private int[] starts = new int[256];
+        private int[] ends = new int[256];
+        private int[] numbers = new int[256];
+        private int size;
+
+        Utf8Tokens(ByteBuffer source) {
+            this.source = source;
         }
 
+        void add(TokenType type, int start, int end, long number) {
+            if (size == types.length) {
+                int grown = size * 2;
+                types = Arrays.copyOf(types, grown);
+                starts = Arrays.copyOf(starts, grown);
+                ends = Arrays.copyOf(ends, grown);
+                numbers = Arrays.copyOf(numbers, grown);
+            }
+            types[size] = (byte) type.ordinal();
+            starts[size] = start;
+            ends[size] = end;
+            numbers[size] = (int) number;
+            size++;
+        }
+
+        public int size() { return size; }
+        public TokenType type(int i) { return TYPES[types[i]]; }
+        public int start(int i) { return starts[i]; }
+        public int end(int i) { return ends[i]; }
+        // NUMBER tokens: the value, or -1 if it does not fit in an int
+        public int number(int i) { return numbers[i]; }
+
+        public String text(int i) {
+            // Symbols and most numbers are single ASCII bytes
+            if (ends[i] - starts[i] == 1 && source.get(starts[i]) >= 0) return String.valueOf((char) source.get(starts[i]));
+            return LexerEngine.decode(source, starts[i], ends[i]);
+        }
+
+        public Token token(int i) {
+            return new Token(type(i), text(i), numbers[i]);
+        }
+    }
+
+    // Maps the file read-only (one mapping holds at most 2 GB; see
+    // analyzeLargeFile for bigger ones)
+    public static Utf8Tokens analyzeArrayFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return analyzeArrayBytes(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static Utf8Tokens analyzeArrayBytes(ByteBuffer utf8) {
+        long startNanos = System.nanoTime();
+        AnalysisEvents.LexEvent event = AnalysisEvents.startLex();
+        Utf8Tokens tokens = new Utf8Tokens(utf8);
+        long[] counts = new long[TokenType.values().length];
+
+        UTF8_LEXER.scan(utf8, new LexerEngine.Sink() {
+            @Override public boolean symbol(char c, int pos, int line) {
+                TokenType type = symbolType(c);
+                counts[type.ordinal()]++;
+                tokens.add(type, pos, pos + 1, -1);
+                return true;
+            }
+
+            @Override public boolean number(int start, int end, long value, int line) {
+                counts[TokenType.NUMBER.ordinal()]++;
+                tokens.add(TokenType.NUMBER, start, end, value);
+                return true;
+            }
+
+            @Override public boolean word(int start, int end, int keyword, int line) {
+                TokenType type = keyword >= 0 ? TokenType.KEYWORD : TokenType.IDENTIFIER;
+                counts[type.ordinal()]++;
+                tokens.add(type, start, end, -1);
+                return true;
+            }
+
+            // Malformed UTF-8 arrives as U+FFFD; the span covers the bad bytes
+            @Override public boolean unknown(int codePoint, int pos, int line) {
+                counts[TokenType.UNKNOWN.ordinal()]++;
+                int decoded = LexerEngine.decodeUtf8(utf8, pos, utf8.limit());
+                tokens.add(TokenType.UNKNOWN, pos, pos + (decoded < 0 ? -decoded : LexerEngine.utf8Width(decoded)), -1);
+                return true;
+            }
+        });
+
+        String errorKind = counts[TokenType.UNKNOWN.ordinal()] > 0 ? "UNKNOWN_CHARACTER" : null;
+        long bytes = utf8.remaining();
+        AnalysisEvents.endLex(event, "ArrayLex", bytes, tokens.size(), errorKind);
+
+        AnalysisMetrics metrics = AnalysisMetrics.get();
+        metrics.lexed(bytes);
+        for (TokenType type : TokenType.values()) metrics.tokens("ArrayLex", type.name(), counts[type.ordinal()]);
+        metrics.run("ArrayLex", System.nanoTime() - startNanos);
+        return tokens;
+    }
+
+    // === LARGE INPUT ===
+    // Files past 2 GB (one mapping, one int offset) go through LargeInput:
+    // long byte offsets, and tokens in chunks of 2^20 entries, so the count
+    // is only bounded by the heap (17 bytes per token).
+
+    public static class LargeTokens {
+        private static final TokenType[] TYPES = TokenType.values();
+        private static final int CHUNK_BITS = 20;
+        private static final int CHUNK = 1 << CHUNK_BITS;
+
+        public final LargeInput source;
+        private byte[][] types = new byte[16][];
+        private long[][] starts = new long[16][];
+        private int[][] lengths = new int[16][];
+        private int[][] numbers = new int[16][];
+        private long size;
+
+        LargeTokens(LargeInput source) {
+            this.source = source;
+        }
+
+        void add(TokenType type, long start, long end, long number) {
+            int chunk = (int) (size >>> CHUNK_BITS);
+            int k = (int) size & (CHUNK - 1);
+            if (k == 0) {
+                if (chunk == types.length) {
+                    int grown = chunk * 2;
+                    types = Arrays.copyOf(types, grown);
+                    starts = Arrays.copyOf(starts, grown);
+                    lengths = Arrays.copyOf(lengths, grown);
+                    numbers = Arrays.copyOf(numbers, grown);
+                }
+                types[chunk] = new byte[CHUNK];
+                starts[chunk] = new long[CHUNK];
+                lengths[chunk] = new int[CHUNK];
+                numbers[chunk] = new int[CHUNK];
+            }
+            types[chunk][k] = (byte) type.ordinal();
+            starts[chunk][k] = start;
+            lengths[chunk][k] = (int) (end - start);
+            numbers[chunk][k] = (int) number;
+            size++;
+        }
+
+        public long size() { return size; }
+        public TokenType type(long i) { return TYPES[types[(int) (i >>> CHUNK_BITS)][(int) i & (CHUNK - 1)]]; }
+        public long start(long i) { return starts[(int) (i >>> CHUNK_BITS)][(int) i & (CHUNK - 1)]; }
+        public long end(long i) { return start(i) + lengths[(int) (i >>> CHUNK_BITS)][(int) i & (CHUNK - 1)]; }
+        // NUMBER tokens: the value, or -1 if it does not fit in an int
+        public int number(long i) { return numbers[(int) (i >>> CHUNK_BITS)][(int) i & (CHUNK - 1)]; }
+
+        public String text(long i) {
+            long start = start(i);
+            long end = end(i);
+            if (end - start == 1 && source.get(start) >= 0) return String.valueOf((char) source.get(start));
+            return source.decode(start, end);
+        }
+
+        public Token token(long i) {
+            return new Token(type(i), text(i), number(i));
+        }
+    }
+
+    public static LargeTokens analyzeLargeFile(Path file) throws IOException {
+        return analyzeLarge(new LargeInput(file), LargeInput.WINDOW);
+    }
+
+    static LargeTokens analyzeLarge(LargeInput input, int window) throws IOException {
+        long startNanos = System.nanoTime();
+        AnalysisEvents.LexEvent event = AnalysisEvents.startLex();
+        LargeTokens tokens = new LargeTokens(input);
+        long[] counts = new long[TokenType.values().length];
+
+        input.scan(UTF8_LEXER, new LargeInput.Sink() {
+            @Override public boolean symbol(char c, long pos, long line) {
+                TokenType type = symbolType(c);
+                counts[type.ordinal()]++;
+                tokens.add(type, pos, pos + 1, -1);
+                return true;
+            }
+
+            @Override public boolean number(long start, long end, long value, long line) {
+                counts[TokenType.NUMBER.ordinal()]++;
+                tokens.add(TokenType.NUMBER, start, end, value);
+                return true;
+            }
+
+            @Override public boolean word(long start, long end, int keyword, long line) {
+                TokenType type = keyword >= 0 ? TokenType.KEYWORD : TokenType.IDENTIFIER;
+                counts[type.ordinal()]++;
+                tokens.add(type, start, end, -1);
+                return true;
+            }
+
+            @Override public boolean unknown(int codePoint, long pos, long line) {
+                counts[TokenType.UNKNOWN.ordinal()]++;
+                tokens.add(TokenType.UNKNOWN, pos, pos + unknownWidth(input, pos), -1);
+                return true;
+            }
+        }, window);
+
+        String errorKind = counts[TokenType.UNKNOWN.ordinal()] > 0 ? "UNKNOWN_CHARACTER" : null;
+        AnalysisEvents.endLex(event, "ArrayLex", input.size(), tokens.size(), errorKind);
+
+        AnalysisMetrics metrics = AnalysisMetrics.get();
+        metrics.lexed(input.size());
+        for (TokenType type : TokenType.values()) metrics.tokens("ArrayLex", type.name(), counts[type.ordinal()]);
+        metrics.run("ArrayLex", System.nanoTime() - startNanos);
         return tokens;
     }
 
+    // Bytes of the code point (or malformed sequence) at pos
+    private static int unknownWidth(LargeInput input, long pos) {
+        byte[] bytes = new byte[(int) Math.min(4, input.size() - pos)];
+        for (int k = 0; k < bytes.length; k++) bytes[k] = input.get(pos + k);
+        int decoded = LexerEngine.decodeUtf8(ByteBuffer.wrap(bytes), 0, bytes.length);
+        return decoded < 0 ? -decoded : LexerEngine.utf8Width(decoded);
+    }
+
+    static TokenType symbolType(char c) {
+        switch (c) {
+            case '[': return TokenType.L_BRACKET;
+            case ']': return TokenType.R_BRACKET;
+            case '{': return TokenType.L_BRACE;
+            case '}': return TokenType.R_BRACE;
+            case ',': return TokenType.COMMA;
+            case '=': return TokenType.EQUALS;
+            default: return TokenType.SEMICOLON;
+        }
+    }
+
     public static void main(String[] args) {
         // A complex array declaration string
         String arrayCode = "int[] myArr = {10, 20, 500};";
@@ -0,0 +1,500 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Token statistics over a corpus of ArrayLex or Java-subset files, lexed in
+// parallel: how often each token kind and keyword occurs, how many distinct
+// identifiers there are, and how long the number and string literals get.
+// Used to size token buffers and to spot pathological inputs (a 40 KB
+// number, a file that is one unclosed string) before they reach production.
+//
+// Token kinds are the ones the analyzers report: ArrayLexer.TokenType, and
+// for the Java subset the type strings of JavaSubsetAnalyzer (EnhancedLexerGUI's
+// table), plus UNKNOWN for what it rejects as a lexical error. Workers take
+// files from a shared counter and scan them as UTF-8 bytes with the
+// language's LexerEngine (LargeInput past 2 GB). Counts are kept per file
+// and added to LongAdders once at its end, as AnalysisMetrics does.
+// Distinct identifiers are estimated with a HyperLogLog sketch per worker
+// (2^14 registers, about 0.8% standard error), merged lock-free by max at
+// the end; literal lengths go into power-of-two buckets.
+//
+// Usage: java CorpusStatistics <arraylex|javasubset> [--threads N] <file|dir>...
+// Exit status: 0 = OK, 2 = usage or I/O problem.
+public class CorpusStatistics {
+
+    static final int LENGTH_BUCKETS = 32;     // bucket b: lengths in [2^(b-1), 2^b)
+    private static final int HLL_BITS = 14;
+    private static final int HLL_REGISTERS = 1 << HLL_BITS;
+    private static final int MAP_THRESHOLD = 1 << 20;
+
+    static final int NUMBER_LITERAL = 0, STRING_LITERAL = 1;
+    static final String[] LITERALS = {"NUMBER", "STRING_LITERAL"};
+
+    // === LANGUAGE ===
+
+    // Kind indexes of one language's tokens
+    private static class Language {
+        final String name;
+        final LexerEngine engine;
+        final String[] keywords;
+        final List<String> kinds = new ArrayList<>();
+        final int[] symbolKind = new int[128];
+        int[] operatorKind = new int[0];
+        int keyword, identifier, number, string, unknown;
+        // Numbers JavaSubsetAnalyzer rejects ("1.2.3", "99999999999", "2int") count as UNKNOWN
+        boolean checkNumbers;
+
+        Language(String name, LexerSpec spec, String[] keywords) {
+            this.name = name;
+            this.engine = spec.compile();
+            this.keywords = keywords;
+        }
+
+        int kind(String name) {
+            int k = kinds.indexOf(name);
+            if (k >= 0) return k;
+            kinds.add(name);
+            return kinds.size() - 1;
+        }
+    }
+
+    private static Language language(String name) {
+        switch (name) {
+            case "arraylex": {
+                Language language = new Language(name, LexerGrammars.arrayLex(), LexerGrammars.ARRAY_LEX_KEYWORDS);
+                for (ArrayLexer.TokenType type : ArrayLexer.TokenType.values()) language.kind(type.name());
+                for (char c = 0; c < 128; c++) {
+                    if (language.engine.classes[c] == LexerEngine.SYMBOL) language.symbolKind[c] = ArrayLexer.symbolType(c).ordinal();
+                }
+                language.keyword = ArrayLexer.TokenType.KEYWORD.ordinal();
+                language.identifier = ArrayLexer.TokenType.IDENTIFIER.ordinal();
+                language.number = ArrayLexer.TokenType.NUMBER.ordinal();
+                language.string = -1; // no strings in ArrayLex
+                language.unknown = ArrayLexer.TokenType.UNKNOWN.ordinal();
+                return language;
+            }
+            case "javasubset": {
+                Language language = new Language(name, LexerGrammars.javaSubset(), LexerGrammars.JAVA_SUBSET_KEYWORDS);
+                language.keyword = language.kind("KEYWORD");
+                language.identifier = language.kind("IDENTIFIER");
+                language.number = language.kind("NUMBER");
+                language.string = language.kind("STRING_LITERAL");
+                for (char c = 0; c < 128; c++) {
+                    if (language.engine.classes[c] == LexerEngine.SYMBOL) language.symbolKind[c] = language.kind(JavaSubsetAnalyzer.getSymbolType(c));
+                }
+                language.operatorKind = new int[JavaSubsetAnalyzer.OPERATOR_TYPES.length];
+                for (int op = 0; op < language.operatorKind.length; op++) {
+                    language.operatorKind[op] = language.kind(JavaSubsetAnalyzer.OPERATOR_TYPES[op]);
+                }
+                language.unknown = language.kind("UNKNOWN");
+                language.checkNumbers = true;
+                return language;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown language '" + name + "'. Use arraylex or javasubset.");
+        }
+    }
+
+    // === RESULT ===
+
+    public static class Longest {
+        public final long length;
+        public final String file;
+        public final long offset;
+
+        Longest(long length, String file, long offset) {
+            this.length = length;
+            this.file = file;
+            this.offset = offset;
+        }
+    }
+
+    private final Language language;
+    private final LongAdder files = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder[] kinds;
+    private final LongAdder[] keywords;
+    private final LongAdder[][] literalLengths = new LongAdder[LITERALS.length][LENGTH_BUCKETS];
+    private final AtomicReferenceArray<Longest> longest = new AtomicReferenceArray<>(LITERALS.length);
+    private final AtomicIntegerArray registers = new AtomicIntegerArray(HLL_REGISTERS);
+    private long nanos;
+    private int threads;
+
+    private CorpusStatistics(Language language) {
+        this.language = language;
+        kinds = adders(language.kinds.size());
+        keywords = adders(language.keywords.length);
+        for (int l = 0; l < LITERALS.length; l++) {
+            literalLengths[l] = adders(LENGTH_BUCKETS);
+            longest.set(l, new Longest(0, null, 0));
+        }
+    }
+
+    private static LongAdder[] adders(int n) {
+        LongAdder[] adders = new LongAdder[n];
+        for (int i = 0; i < n; i++) adders[i] = new LongAdder();
+        return adders;
+    }
+
+    public long files() { return files.sum(); }
+    public long bytes() { return bytes.sum(); }
+
+    public long tokens() {
+        long total = 0;
+        for (LongAdder k : kinds) total += k.sum();
+        return total;
+    }
+
+    public List<String> kindNames() { return language.kinds; }
+
+    public long kind(String name) {
+        int k = language.kinds.indexOf(name);
+        return k < 0 ? 0 : kinds[k].sum();
+    }
+
+    public long keyword(String word) {
+        for (int k = 0; k < language.keywords.length; k++) {
+            if (language.keywords[k].equals(word)) return keywords[k].sum();
+        }
+        return 0;
+    }
+
+    // Counts per bucket; literal is NUMBER_LITERAL or STRING_LITERAL
+    public long[] literalLengths(int literal) {
+        long[] counts = new long[LENGTH_BUCKETS];
+        for (int b = 0; b < LENGTH_BUCKETS; b++) counts[b] = literalLengths[literal][b].sum();
+        return counts;
+    }
+
+    public Longest longest(int literal) {
+        return longest.get(literal);
+    }
+
+    // HyperLogLog estimate, with linear counting while many registers are empty
+    public long distinctIdentifiers() {
+        double sum = 0;
+        int zeros = 0;
+        for (int r = 0; r < HLL_REGISTERS; r++) {
+            int v = registers.get(r);
+            sum += Math.scalb(1.0, -v);
+            if (v == 0) zeros++;
+        }
+        double m = HLL_REGISTERS;
+        double estimate = 0.7213 / (1 + 1.079 / m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) estimate = m * Math.log(m / zeros);
+        return Math.round(estimate);
+    }
+
+    // === COLLECTION ===
+
+    // Lexes every file under the roots (files or directories, walked
+    // recursively) on 'threads' workers
+    public static CorpusStatistics collect(String languageName, List<Path> roots, int threads) throws IOException {
+        CorpusStatistics stats = new CorpusStatistics(language(languageName));
+        List<Path> paths = new ArrayList<>();
+        for (Path root : roots) {
+            try (Stream<Path> walk = Files.walk(root)) {
+                paths.addAll(walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList()));
+            }
+        }
+
+        long start = System.nanoTime();
+        stats.threads = Math.max(1, Math.min(threads, paths.size()));
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(stats.threads, r -> {
+            Thread t = new Thread(r, "corpus-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<Void>> workers = new ArrayList<>();
+            for (int w = 0; w < stats.threads; w++) {
+                workers.add(executor.submit(() -> {
+                    Worker worker = stats.new Worker();
+                    for (int k; (k = next.getAndIncrement()) < paths.size(); ) worker.scan(paths.get(k));
+                    worker.mergeSketch();
+                    return null;
+                }));
+            }
+            for (Future<Void> worker : workers) worker.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        stats.nanos = System.nanoTime() - start;
+        return stats;
+    }
+
+    // One thread's scanner. Counts for the current file are plain arrays,
+    // added to the shared LongAdders when the file is done; the sketch
+    // stays private until mergeSketch().
+    private class Worker implements LexerEngine.Sink, LargeInput.Sink {
+        private final long[] kindCounts = new long[kinds.length];
+        private final long[] keywordCounts = new long[keywords.length];
+        private final long[][] lengthCounts = new long[LITERALS.length][LENGTH_BUCKETS];
+        private final long[] longestLength = new long[LITERALS.length];
+        private final long[] longestOffset = new long[LITERALS.length];
+        private final byte[] sketch = new byte[HLL_REGISTERS];
+        private ByteBuffer reuse = ByteBuffer.allocate(1 << 16);
+
+        // Current file
+        private ByteBuffer buffer;   // null for a LargeInput file
+        private LargeInput large;
+        private long rejectedEnd;    // end of a rejected "2int" number; its word is part of it
+
+        void scan(Path path) throws IOException {
+            long size = Files.size(path);
+            rejectedEnd = -1;
+            if (size > Integer.MAX_VALUE) {
+                buffer = null;
+                large = new LargeInput(path);
+                large.scan(language.engine, this);
+            } else {
+                large = null;
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    // Small files share one buffer; see IdentifierIndex on mapping limits
+                    buffer = size < MAP_THRESHOLD ? read(channel, (int) size) : channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                }
+                language.engine.scan(buffer, this);
+            }
+            publish(path, size);
+        }
+
+        private ByteBuffer read(FileChannel channel, int size) throws IOException {
+            if (reuse.capacity() < size) reuse = ByteBuffer.allocate(Math.max(size, reuse.capacity() * 2));
+            reuse.clear().limit(size);
+            while (reuse.hasRemaining() && channel.read(reuse) >= 0) { }
+            return reuse.flip();
+        }
+
+        private void publish(Path path, long size) {
+            files.increment();
+            bytes.add(size);
+            for (int k = 0; k < kindCounts.length; k++) {
+                if (kindCounts[k] != 0) kinds[k].add(kindCounts[k]);
+                kindCounts[k] = 0;
+            }
+            for (int k = 0; k < keywordCounts.length; k++) {
+                if (keywordCounts[k] != 0) keywords[k].add(keywordCounts[k]);
+                keywordCounts[k] = 0;
+            }
+            for (int l = 0; l < LITERALS.length; l++) {
+                for (int b = 0; b < LENGTH_BUCKETS; b++) {
+                    if (lengthCounts[l][b] != 0) literalLengths[l][b].add(lengthCounts[l][b]);
+                    lengthCounts[l][b] = 0;
+                }
+                if (longestLength[l] > 0) {
+                    Longest mine = new Longest(longestLength[l], path.toString(), longestOffset[l]);
+                    longest.accumulateAndGet(l, mine, (a, b) -> b.length > a.length ? b : a);
+                }
+                longestLength[l] = 0;
+            }
+        }
+
+        void mergeSketch() {
+            for (int r = 0; r < HLL_REGISTERS; r++) {
+                int v = sketch[r];
+                if (v != 0) registers.accumulateAndGet(r, v, Math::max);
+            }
+        }
+
+        private void literal(int literal, long start, long end) {
+            long length = end - start;
+            lengthCounts[literal][Math.min(LENGTH_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(length))]++;
+            if (length > longestLength[literal]) {
+                longestLength[literal] = length;
+                longestOffset[literal] = start;
+            }
+        }
+
+        // FNV-1a over the UTF-8 bytes, then the MurmurHash3 finalizer so the
+        // top bits (the register index) are well mixed
+        private void identifier(long hash) {
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            int register = (int) (hash >>> (64 - HLL_BITS));
+            int rank = Long.numberOfLeadingZeros(hash << HLL_BITS | 1L << (HLL_BITS - 1)) + 1;
+            if (rank > sketch[register]) sketch[register] = (byte) rank;
+        }
+
+        private boolean word(long start, long end, int keyword) {
+            if (start == rejectedEnd) return true;
+            if (keyword >= 0) {
+                kindCounts[language.keyword]++;
+                keywordCounts[keyword]++;
+                return true;
+            }
+            kindCounts[language.identifier]++;
+            long hash = 0xcbf29ce484222325L;
+            if (buffer != null) {
+                for (int i = (int) start; i < end; i++) hash = (hash ^ (buffer.get(i) & 0xff)) * 0x100000001b3L;
+            } else {
+                for (byte b : large.decode(start, end).getBytes(StandardCharsets.UTF_8)) hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+            }
+            identifier(hash);
+            return true;
+        }
+
+        // Same checks, in the same order, as JavaSubsetAnalyzer's numberToken
+        private boolean number(long start, long end, boolean inRange) {
+            if (language.checkNumbers) {
+                int next = codePointAt(end);
+                if (next >= 0 && (Character.isLetter(next) || next == '_')) {
+                    rejectedEnd = end;
+                    kindCounts[language.unknown]++;
+                    return true;
+                }
+                if (!inRange) {
+                    kindCounts[language.unknown]++;
+                    return true;
+                }
+            }
+            kindCounts[language.number]++;
+            literal(NUMBER_LITERAL, start, end);
+            return true;
+        }
+
+        private boolean malformedNumber(long start, long end) {
+            if (!language.checkNumbers) return number(start, end, true);
+            kindCounts[language.unknown]++;
+            return true;
+        }
+
+        // Code point at pos (negative for malformed UTF-8), -1 at the end of the file
+        private int codePointAt(long pos) {
+            if (buffer != null) return pos < buffer.limit() ? LexerEngine.decodeUtf8(buffer, (int) pos, buffer.limit()) : -1;
+            if (pos >= large.size()) return -1;
+            return large.decode(pos, Math.min(large.size(), pos + 4)).codePointAt(0);
+        }
+
+        private boolean string(long start, long end) {
+            kindCounts[language.string]++;
+            literal(STRING_LITERAL, start, end);
+            return true;
+        }
+
+        // --- LexerEngine.Sink ---
+        @Override public boolean symbol(char c, int pos, int line) { kindCounts[language.symbolKind[c]]++; return true; }
+        @Override public boolean operator(int op, int start, int end, int line) { kindCounts[language.operatorKind[op]]++; return true; }
+        @Override public boolean number(int start, int end, long value, int line) { return number(start, end, value >= 0); }
+        @Override public boolean decimal(int start, int end, double value, int line) { return number(start, end, true); }
+        @Override public boolean malformedNumber(int start, int end, int line) { return malformedNumber(start, end); }
+        @Override public boolean word(int start, int end, int keyword, int line) { return word(start, end, keyword); }
+        @Override public boolean string(int start, int end, boolean closed, int line) { return string(start, end); }
+        @Override public boolean unknown(int codePoint, int pos, int line) { kindCounts[language.unknown]++; return true; }
+
+        // --- LargeInput.Sink ---
+        @Override public boolean symbol(char c, long pos, long line) { kindCounts[language.symbolKind[c]]++; return true; }
+        @Override public boolean operator(int op, long start, long end, long line) { kindCounts[language.operatorKind[op]]++; return true; }
+        @Override public boolean number(long start, long end, long value, long line) { return number(start, end, value >= 0); }
+        @Override public boolean decimal(long start, long end, double value, long line) { return number(start, end, true); }
+        @Override public boolean malformedNumber(long start, long end, long line) { return malformedNumber(start, end); }
+        @Override public boolean word(long start, long end, int keyword, long line) { return word(start, end, keyword); }
+        @Override public boolean string(long start, long end, boolean closed, long line) { return string(start, end); }
+        @Override public boolean unknown(int codePoint, long pos, long line) { kindCounts[language.unknown]++; return true; }
+    }
+
+    // === REPORT ===
+
+    public String report() {
+        StringBuilder out = new StringBuilder();
+        long tokens = tokens();
+        double seconds = nanos / 1e9;
+        out.append(String.format("=== %s corpus: %,d files, %,d bytes, %,d tokens (%d thread(s), %.2f s, %.1f MB/s)%n",
+                language.name, files(), bytes(), tokens, threads, seconds, seconds > 0 ? bytes() / 1e6 / seconds : 0));
+
+        out.append("Token kinds:\n");
+        for (int k = 0; k < kinds.length; k++) {
+            long n = kinds[k].sum();
+            if (n > 0) out.append(String.format("  %-28s %,15d  %5.1f%%%n", language.kinds.get(k), n, 100.0 * n / tokens));
+        }
+
+        out.append("Keywords:\n");
+        for (int k = 0; k < keywords.length; k++) {
+            long n = keywords[k].sum();
+            if (n > 0) out.append(String.format("  %-28s %,15d%n", language.keywords[k], n));
+        }
+
+        out.append(String.format("Distinct identifiers: ~%,d (HyperLogLog, +/-0.8%%)%n", distinctIdentifiers()));
+
+        for (int l = 0; l < LITERALS.length; l++) {
+            if (l == STRING_LITERAL && language.string < 0) continue;
+            out.append(LITERALS[l]).append(" literal lengths (bytes").append(l == STRING_LITERAL ? ", quotes included" : "").append("):\n");
+            long[] counts = literalLengths(l);
+            for (int b = 0; b < LENGTH_BUCKETS; b++) {
+                if (counts[b] == 0) continue;
+                long lo = b == 0 ? 0 : 1L << (b - 1), hi = b == 0 ? 0 : (1L << b) - 1;
+                String range = lo == hi ? String.valueOf(lo) : lo + "-" + (b == LENGTH_BUCKETS - 1 ? "" : String.valueOf(hi));
+                out.append(String.format("  %-28s %,15d%n", range, counts[b]));
+            }
+            Longest max = longest(l);
+            if (max.file != null) out.append(String.format("  longest: %,d bytes in %s @ %d%n", max.length, max.file, max.offset));
+        }
+        return out.toString();
+    }
+
+    // === COMMAND LINE ===
+
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int first = 1; // index of the first path
+        if (args.length > 1 && args[1].equals("--threads")) {
+            if (args.length < 3) usage();
+            try {
+                threads = Integer.parseInt(args[2]);
+            } catch (NumberFormatException e) {
+                usage();
+            }
+            first = 3;
+        }
+        if (args.length <= first || threads < 1) usage();
+
+        List<Path> roots = new ArrayList<>();
+        for (int a = first; a < args.length; a++) roots.add(Paths.get(args[a]));
+        PrintStream out = new PrintStream(System.out, false, StandardCharsets.UTF_8);
+        int exit = 0;
+        try {
+            out.print(collect(args[0], roots, threads).report());
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            exit = 2;
+        } catch (IOException e) {
+            out.flush();
+            System.err.println("Cannot read input: " + e.getMessage());
+            exit = 2;
+        }
+        out.flush();
+        System.exit(exit);
+    }
+
+    private static void usage() {
+        System.err.println("Usage: java CorpusStatistics <arraylex|javasubset> [--threads N] <file|dir>...");
+        System.exit(2);
+    }
+}
@@ -120,67 +120,84 @@ public class EzLangInterpreter extends JFrame {
     // ==========================================
     // PHASE 1: TOKENIZER
     // ==========================================
+    private static final String[] KEYWORDS = {"make", "print", "if", "list", "num", "loop", "from", "to"};
+
+    // Same grammar as EzLangRuntime, but this window skips unknown
+    // characters and accepts an unclosed string
+    private static final LexerEngine LEXER = new LexerSpec()
+            .symbols("[](){},;")
+            .operators(":=", "==", ">=", "<=", ":", "=", ">", "<")
+            .keywords(KEYWORDS)
+            .strings('"', (char) 0)
+            .identifiers(false, true)
+            .compile();
+
     private boolean runTokenizer() {
         String input = inputArea.getText();
-        char[] chars = input.toCharArray();
-        int n = chars.length;
-        int i = 0;
+        AnalysisEvents.EzPhaseEvent event = AnalysisEvents.startEzPhase();
+        Exception error = null;
 
         try {
-            while (i < n) {
-                char c = chars[i];
-                if (Character.isWhitespace(c)) { i++; continue; }
-
-                if (c == '"') {
-                    String s = ""; i++;
-                    while (i < n && chars[i] != '"') { s += chars[i]; i++; }
-                    if (i < n) i++; 
-                    addToken("STRING", s);
-                    continue;
+            return LEXER.scan(input, new LexerEngine.Sink() {
+                @Override public boolean string(int start, int end, boolean closed, int line) {
+                    addToken("STRING", input.substring(start + 1, closed ? end - 1 : end));
+                    return true;
                 }
 
-                if ("[](){},;".indexOf(c) != -1) {
-                    addToken("SYMBOL", Character.toString(c)); i++; continue;
+                @Override public boolean symbol(char c, int pos, int line) {
+                    addToken("SYMBOL", Character.toString(c));
+                    return true;
                 }
 
-                if (":=><".indexOf(c) != -1) {
-                    if (i + 1 < n && chars[i+1] == '=') {
-                        addToken("OPERATOR", "" + c + chars[i+1]); i += 2;
-                    } else {
-                        addToken("OPERATOR", Character.toString(c)); i++;
-                    }
-                    continue;
+                @Override public boolean operator(int op, int start, int end, int line) {
+                    addToken("OPERATOR", input.substring(start, end));
+                    return true;
                 }
 
-                if (Character.isDigit(c)) {
-                    String num = "";
-                    while (i < n && Character.isDigit(chars[i])) { num += chars[i]; i++; }
-                    addToken("NUMBER", num);
-                    continue;
+                // Decode once here; overflow is a syntax error instead of a runtime crash
+                @Override public boolean number(int start, int end, long value, int line) {
+                    if (value < 0) return false;
+                    addToken("NUMBER", input.substring(start, end), (int) value);
+                    return true;
                 }
 
-                if (Character.isLetter(c)) {
-                    String word = "";
-                    while (i < n && (Character.isLetterOrDigit(chars[i]) || chars[i] == '_')) {
-                        word += chars[i]; i++;
-                    }
-                    if (isKeyword(word)) addToken("KEYWORD", word);
-                    else addToken("IDENTIFIER", word);
-                    continue;
+                @Override public boolean word(int start, int end, int keyword, int line) {
+                    addToken(keyword >= 0 ? "KEYWORD" : "IDENTIFIER", input.substring(start, end));
+                    return true;
                 }
-                i++;
-            }
-            return true;
-        } catch (Exception e) { return false; }
+            });
+        } catch (Exception e) {
+            error = e;
+            return false;
+        } finally {
+            AnalysisEvents.endEzPhase(event, "EzLangInterpreter", "runTokenizer", input, tokenCount, 0, error);
+        }
     }
 
     // ==========================================
     // PHASE 2: INTERPRETER (Fixed Loop Logic)
     // ==========================================
     private void runInterpreter() {
+        AnalysisEvents.EzPhaseEvent event = AnalysisEvents.startEzPhase();
+        RuntimeException error = null;
+        long steps = 0;
+        try {
+            steps = interpret();
+        } catch (RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            AnalysisEvents.endEzPhase(event, "EzLangInterpreter", "runInterpreter", null, tokenCount, steps, error);
+        }
+    }
+
+    // Returns the number of statements executed
+    private long interpret() {
+        long steps = 0;
         int i = 0;
         while (i < tokenCount) {
             Token t = tokens[i];
+            steps++;
 
             // --- COMMAND: PRINT ---
             if (t.value.equals("print")) {
@@ -202,7 +219,7 @@ public class EzLangInterpreter extends JFrame {
                 String type = tokens[i+1].value; 
                 String name = tokens[i+2].value;
                 if (type.equals("num")) {
-                    int val = Integer.parseInt(tokens[i+4].value);
+                    int val = tokens[i+4].num;
                     saveScalar(name, val);
                     i += 5;
                 } else if (type.equals("list")) {
@@ -211,7 +228,7 @@ public class EzLangInterpreter extends JFrame {
                     int foundCount = 0;
                     while (!tokens[k].value.equals("]")) {
                         if (tokens[k].type.equals("NUMBER")) {
-                            tempBuffer[foundCount++] = Integer.parseInt(tokens[k].value);
+                            tempBuffer[foundCount++] = tokens[k].num;
                         }
                         k++;
                     }
@@ -319,6 +336,7 @@ public class EzLangInterpreter extends JFrame {
                 i++;
             }
         }
+        return steps;
     }
 
     // ==========================================
@@ -350,12 +368,12 @@ public class EzLangInterpreter extends JFrame {
 
     private int resolveNumber(int index) {
         Token t = tokens[index];
-        if (t.type.equals("NUMBER")) return Integer.parseInt(t.value);
+        if (t.type.equals("NUMBER")) return t.num;
         if (t.type.equals("IDENTIFIER")) {
             String name = t.value;
             if (index + 1 < tokenCount && tokens[index+1].value.equals("[")) {
-                String idxStr = tokens[index+2].value;
-                int arrIndex = Character.isLetter(idxStr.charAt(0)) ? getScalar(idxStr) : Integer.parseInt(idxStr);
+                Token idxTok = tokens[index+2];
+                int arrIndex = idxTok.type.equals("NUMBER") ? idxTok.num : getScalar(idxTok.value);
                 return getListValue(name, arrIndex);
             } else {
                 return getScalar(name);
@@ -365,19 +383,18 @@ public class EzLangInterpreter extends JFrame {
     }
 
     private void addToken(String t, String v) {
+        addToken(t, v, 0);
+    }
+
+    private void addToken(String t, String v, int num) {
         if (tokenCount < MAX_TOKENS) {
             tokens[tokenCount] = new Token(t, v);
+            tokens[tokenCount].num = num;
             tokenModel.addRow(new Object[]{t, v});
             tokenCount++;
         }
     }
 
-    private boolean isKeyword(String w) {
-        String[] k = {"make", "print", "if", "list", "num", "loop", "from", "to"};
-        for (String s : k) if (s.equals(w)) return true;
-        return false;
-    }
-
     private void saveScalar(String name, int val) {
         for(int k=0; k<varCount; k++) {
             if(varNames[k].equals(name) && varTypes[k].equals("NUM")) {
@@ -423,6 +440,7 @@ public class EzLangInterpreter extends JFrame {
 
     class Token {
         String type, value;
+        int num; // decoded value of NUMBER tokens
         public Token(String t, String v) { type = t; value = v; }
     }
 
@@ -0,0 +1,1029 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+// The EzLang runtime behind the artix window: tokenizer, structure check,
+// optimizer and interpreter. It has no Swing dependency; program output goes
+// to the console callback given to the constructor.
+public class EzLangRuntime {
+
+    // === SYSTEM LIMITS ===
+    private final int MAX_TOKENS = 1000;
+    private final int MAX_VARS = 100;
+    private final int MAX_SCOPE_DEPTH = 50;
+    private final int MAX_STATEMENTS = 100000;
+
+    // === TOKEN STORAGE ===
+    private Token[] tokens = new Token[MAX_TOKENS];
+    private int tokenCount = 0;
+    // Line starts of the source, filled in by the scanner; tokens only keep their offset
+    private LineIndex lines = new LineIndex();
+
+    // === MEMORY SYSTEM (RAM) ===
+    private String[] varNames = new String[MAX_VARS];   
+    private String[] varTypes = new String[MAX_VARS];   
+    private int[] scalarMemory = new int[MAX_VARS];     
+    private EzList[] listMemory = new EzList[MAX_VARS];   
+    private int varCount = 0;
+
+    // === CONTROL FLOW REGISTERS ===
+    private int[] loopStartStack = new int[MAX_SCOPE_DEPTH];
+    private String[] loopVarStack = new String[MAX_SCOPE_DEPTH];
+    private int[] loopLimitStack = new int[MAX_SCOPE_DEPTH];
+    private int loopDepth = 0;
+
+    // === SCOPE STACK ===
+    private String[] scopeStack = new String[MAX_SCOPE_DEPTH];
+    private int stackTop = 0;
+
+    // === OUTPUT AND PROFILER (profiler is null when disabled) ===
+    private final Consumer<String> console;
+    private final EzProfiler profiler;
+
+    // Per-run totals for the JFR phase events and the JMX counters
+    private long steps = 0;
+    private long lookups = 0;
+    private long listAccesses = 0;
+    private long runStartNanos;
+
+    // Statements executed this run and the most it may execute. A ploop
+    // worker counts on its own, limited to what its parent had left; the
+    // parent adds the counts up in split order, so a ploop halts on the
+    // same programs as the equivalent loop, whatever the thread timing.
+    private long executed = 0;
+    private long statementLimit = MAX_STATEMENTS;
+
+    // === ERROR HANDLING CLASS ===
+    public static class SyntaxException extends Exception {
+        public SyntaxException(String message) { super(message); }
+    }
+
+    public EzLangRuntime(Consumer<String> console, EzProfiler profiler) {
+        this.console = console;
+        this.profiler = profiler;
+    }
+
+    // Worker for one split of a ploop: shares the tokens and the list arrays
+    // with its parent, gets a private copy of the scalars.
+    private EzLangRuntime(EzLangRuntime parent, Consumer<String> console) {
+        this.console = console;
+        this.profiler = null;
+        this.tokens = parent.tokens;
+        this.tokenCount = parent.tokenCount;
+        this.lines = parent.lines;
+        this.varNames = parent.varNames.clone();
+        this.varTypes = parent.varTypes.clone();
+        this.scalarMemory = parent.scalarMemory.clone();
+        this.listMemory = parent.listMemory.clone();
+        this.varCount = parent.varCount;
+        this.statementLimit = parent.statementLimit - parent.executed;
+    }
+
+    // === PHASES (each one is reported as a JFR EzPhaseEvent) ===
+
+    public boolean runTokenizer(String input) throws SyntaxException {
+        runStartNanos = System.nanoTime();
+        AnalysisEvents.EzPhaseEvent event = AnalysisEvents.startEzPhase();
+        SyntaxException error = null;
+        try {
+            return tokenize(input);
+        } catch (SyntaxException e) {
+            error = e;
+            throw e;
+        } finally {
+            AnalysisEvents.endEzPhase(event, "artix", "runTokenizer", input, tokenCount, 0, error);
+            recordTokens(input);
+            if (error != null) recordRun();
+        }
+    }
+
+    public void preCheckStructure() throws SyntaxException {
+        AnalysisEvents.EzPhaseEvent event = AnalysisEvents.startEzPhase();
+        SyntaxException error = null;
+        try {
+            checkStructure();
+        } catch (SyntaxException e) {
+            error = e;
+            throw e;
+        } finally {
+            AnalysisEvents.endEzPhase(event, "artix", "preCheckStructure", null, tokenCount, 0, error);
+            if (error != null) recordRun();
+        }
+    }
+
+    public void runInterpreter() throws SyntaxException {
+        AnalysisEvents.EzPhaseEvent event = AnalysisEvents.startEzPhase();
+        SyntaxException error = null;
+        executed = 0;
+        try {
+            execute(0, tokenCount);
+        } catch (SyntaxException e) {
+            error = e;
+            throw e;
+        } finally {
+            AnalysisEvents.endEzPhase(event, "artix", "runInterpreter", null, tokenCount, steps, error);
+            recordRun();
+        }
+    }
+
+    // === JMX COUNTERS (added once per run, not per statement) ===
+
+    private void recordTokens(String input) {
+        AnalysisMetrics metrics = AnalysisMetrics.get();
+        metrics.lexed(AnalysisEvents.utf8Length(input));
+        Map<String, Long> counts = new HashMap<>();
+        for (int k = 0; k < tokenCount; k++) counts.merge(tokens[k].type, 1L, Long::sum);
+        for (Map.Entry<String, Long> e : counts.entrySet()) metrics.tokens("EzLang", e.getKey(), e.getValue());
+    }
+
+    private void recordRun() {
+        AnalysisMetrics metrics = AnalysisMetrics.get();
+        metrics.interpreted(steps, lookups, listAccesses);
+        metrics.run("EzLang", System.nanoTime() - runStartNanos);
+    }
+
+    // Grammar: LexerGrammars.ezLang(), scanned by the generated EzLangScanner
+    private boolean tokenize(String input) throws SyntaxException {
+        String[] error = new String[1];
+        lines = new LineIndex();
+
+        EzLangScanner.scan(input, new LexerEngine.Sink() {
+            @Override public void newline(int pos) {
+                lines.newline(pos);
+            }
+
+            @Override public boolean string(int start, int end, boolean closed, int line) {
+                if (!closed) return fail("Line " + line + ": Unclosed string literal.");
+                addToken("STRING", input.substring(start + 1, end - 1), start);
+                return true;
+            }
+
+            @Override public boolean symbol(char c, int pos, int line) {
+                addToken("SYMBOL", Character.toString(c), pos);
+                return true;
+            }
+
+            @Override public boolean operator(int op, int start, int end, int line) {
+                addToken("OPERATOR", input.substring(start, end), start);
+                return true;
+            }
+
+            // Numbers are decoded once here, the interpreter only reads Token.num
+            @Override public boolean number(int start, int end, long value, int line) {
+                if (value < 0) return fail("Line " + line + ": Number too large.");
+                addToken("NUMBER", input.substring(start, end), start, (int) value);
+                return true;
+            }
+
+            @Override public boolean word(int start, int end, int keyword, int line) {
+                addToken(keyword >= 0 ? "KEYWORD" : "IDENTIFIER", input.substring(start, end), start);
+                return true;
+            }
+
+            @Override public boolean unknown(int codePoint, int pos, int line) {
+                return fail("Line " + line + ": Unexpected character '" + Character.toString(codePoint) + "'");
+            }
+
+            private boolean fail(String message) {
+                error[0] = message;
+                return false;
+            }
+        });
+
+        if (error[0] != null) throw new SyntaxException(error[0]);
+        return true;
+    }
+
+    private void checkStructure() throws SyntaxException {
+        int openBraces = 0;
+        for (int i = 0; i < tokenCount; i++) {
+            if (tokens[i].value.equals("{")) openBraces++;
+            if (tokens[i].value.equals("}")) openBraces--;
+            if (openBraces < 0) throw new SyntaxException("Line " + line(tokens[i]) + ": Unexpected '}' without matching '{'.");
+        }
+        if (openBraces > 0) throw new SyntaxException("Code Structure Error: Missing " + openBraces + " closing brace(s) '}'.");
+        checkParallelLoops();
+    }
+
+    // A ploop body may only read shared state and write list[i] for its own
+    // index i, so that any split of the range gives the same result.
+    private void checkParallelLoops() throws SyntaxException {
+        for (int i = 0; i < tokenCount; i++) {
+            Token t = tokens[i];
+            if (!t.type.equals("KEYWORD") || !t.value.equals("ploop")) continue;
+            if (i + 1 >= tokenCount) throw new SyntaxException("Unexpected end of code. Expected more tokens.");
+
+            String varName = tokens[i+1].value;
+            int bodyStart = i;
+            while (bodyStart < tokenCount && !tokens[bodyStart].value.equals("{")) bodyStart++;
+            int bodyEnd = findBlockEnd(i) - 1;
+
+            Set<String> written = new HashSet<>();
+            for (int p = bodyStart + 1; p < bodyEnd; p++) {
+                Token b = tokens[p];
+                if (b.type.equals("KEYWORD") && (b.value.equals("make") || b.value.equals("loop") || b.value.equals("ploop"))) {
+                    throw new SyntaxException("Line " + line(b) + ": '" + b.value + "' is not allowed inside ploop. Iterations may only read shared variables.");
+                }
+                if (b.type.equals("IDENTIFIER") && b.value.equals("fill") && p + 1 < bodyEnd && tokens[p+1].value.equals("(")) {
+                    throw new SyntaxException("Line " + line(b) + ": 'fill' is not allowed inside ploop. Iterations may only write their own list element.");
+                }
+                if (b.type.equals("KEYWORD") && b.value.equals("set")) {
+                    if (p + 4 >= bodyEnd || !tokens[p+2].value.equals("[") || !tokens[p+3].value.equals(varName) || !tokens[p+4].value.equals("]")) {
+                        throw new SyntaxException("Line " + line(b) + ": Inside ploop, 'set' may only write element [" + varName + "].");
+                    }
+                    written.add(tokens[p+1].value);
+                }
+            }
+
+            for (int p = bodyStart + 1; p < bodyEnd; p++) {
+                Token b = tokens[p];
+                if (!b.type.equals("IDENTIFIER") || !written.contains(b.value)) continue;
+                if (p + 3 >= bodyEnd || !tokens[p+1].value.equals("[") || !tokens[p+2].value.equals(varName) || !tokens[p+3].value.equals("]")) {
+                    throw new SyntaxException("Line " + line(b) + ": List '" + b.value + "' is written inside ploop, so it may only be used as " + b.value + "[" + varName + "].");
+                }
+            }
+        }
+    }
+
+    // === OPTIMIZER ===
+    // Runs between tokenization and execution. If-conditions whose operands are
+    // literals or never-reassigned 'make num' constants are decided here: false
+    // blocks are dropped, true ones lose their header and closing brace. Loops
+    // with constant bounds get their bounds and trip count precomputed, and
+    // 'list[i]' reads in their body that provably stay in range are marked
+    // so resolveNumber() can skip the lookup and the range check.
+    public void optimizeProgram() {
+        Map<String, int[]> constants = collectConstants();
+        boolean[] removed = new boolean[tokenCount];
+
+        int i = 0;
+        while (i < tokenCount) {
+            Token t = tokens[i];
+            if (!t.type.equals("KEYWORD") || !t.value.equals("if")) { i++; continue; }
+
+            int leftIndex = i + (i + 1 < tokenCount && tokens[i+1].value.equals("(") ? 2 : 1);
+            Integer left = constOperand(leftIndex, constants);
+            Integer right = constOperand(leftIndex + 2, constants);
+            int braceIndex = leftIndex + 3;
+            if (braceIndex < tokenCount && tokens[braceIndex].value.equals(")")) braceIndex++;
+            if (left == null || right == null || braceIndex >= tokenCount || !tokens[braceIndex].value.equals("{")) { i++; continue; }
+
+            String op = tokens[leftIndex + 1].value;
+            boolean cond;
+            if (op.equals(">")) cond = left > right;
+            else if (op.equals("<")) cond = left < right;
+            else if (op.equals("==")) cond = left.intValue() == right.intValue();
+            else { i++; continue; } // leave the error to the interpreter
+
+            int end = findBlockEnd(i);
+            if (!cond) {
+                for (int k = i; k < end; k++) removed[k] = true;
+                i = end;
+            } else {
+                for (int k = i; k <= braceIndex; k++) removed[k] = true;
+                if (end - 1 < tokenCount && tokens[end - 1].value.equals("}")) removed[end - 1] = true;
+                i = braceIndex + 1;
+            }
+        }
+
+        int kept = 0;
+        for (int k = 0; k < tokenCount; k++) {
+            if (!removed[k]) tokens[kept++] = tokens[k];
+        }
+        for (int k = kept; k < tokenCount; k++) tokens[k] = null;
+        tokenCount = kept;
+
+        // Bodies of folded-true ifs are now top level, so look again
+        constants = collectConstants();
+        for (int k = 0; k + 6 < tokenCount; k++) {
+            Token t = tokens[k];
+            if (!t.type.equals("KEYWORD") || !t.value.equals("loop")) continue;
+            if (!tokens[k+2].value.equals("from") || !tokens[k+4].value.equals("to") || !tokens[k+6].value.equals("{")) continue;
+            Integer start = constOperand(k + 3, constants);
+            Integer end = constOperand(k + 5, constants);
+            if (start == null || end == null) continue;
+
+            t.constBounds = true;
+            t.boundStart = start;
+            t.tripCount = Math.max(1, end - start); // the body always runs at least once
+            t.bodyIndex = k + 7;
+        }
+
+        Map<String, int[]> lists = collectListLengths();
+        for (int k = 0; k < tokenCount; k++) {
+            Token t = tokens[k];
+            if (t.constBounds) proveListAccesses(k, lists);
+        }
+    }
+
+    // Unless the body rebinds it, the loop variable only changes at the
+    // loop's own '}', so inside the body it stays in [boundStart,
+    // boundStart + tripCount - 1]. Only the directly enclosing loop is
+    // checked for a reused name at run time, so a deeper nested loop (or a
+    // make/set) can rebind it; then nothing is proven.
+    private void proveListAccesses(int loopIndex, Map<String, int[]> lists) {
+        Token loop = tokens[loopIndex];
+        String varName = tokens[loopIndex + 1].value;
+        int first = loop.boundStart;
+        long last = (long) loop.boundStart + loop.tripCount - 1;
+        int end = findBlockEnd(loopIndex);
+
+        for (int p = loop.bodyIndex; p + 2 < end; p++) {
+            if (rebinds(p, varName)) return;
+        }
+
+        for (int p = loop.bodyIndex; p + 3 < end; p++) {
+            Token t = tokens[p];
+            if (!t.type.equals("IDENTIFIER") || !tokens[p+1].value.equals("[")) continue;
+            if (!tokens[p+2].value.equals(varName) || !tokens[p+3].value.equals("]")) continue;
+            int[] list = lists.get(t.value);
+            if (list == null || list[1] > loopIndex) continue;
+            if (first >= 0 && last < list[0]) t.boundsProven = true;
+        }
+    }
+
+    // 'loop/ploop/set name ...' or 'make <type> name ...' at p
+    private boolean rebinds(int p, String varName) {
+        Token t = tokens[p];
+        if (!t.type.equals("KEYWORD")) return false;
+        switch (t.value) {
+            case "loop": case "ploop": case "set": return tokens[p+1].value.equals(varName);
+            case "make": return tokens[p+2].value.equals(varName);
+            default: return false;
+        }
+    }
+
+    // name -> {length, token index of its declaration} for top-level
+    // 'make list x := [ ... ]' declared exactly once
+    private Map<String, int[]> collectListLengths() {
+        Map<String, int[]> lists = new HashMap<>();
+        Set<String> notConstant = new HashSet<>();
+        int depth = 0;
+        for (int i = 0; i < tokenCount; i++) {
+            Token t = tokens[i];
+            if (t.value.equals("{")) depth++;
+            else if (t.value.equals("}")) depth--;
+            else if (t.type.equals("KEYWORD") && t.value.equals("make") && i + 4 < tokenCount) {
+                String name = tokens[i+2].value;
+                if (depth > 0 || !tokens[i+1].value.equals("list") || lists.containsKey(name)) { notConstant.add(name); continue; }
+                if (!tokens[i+4].value.equals("[")) continue;
+                int length = 0;
+                int k = i + 5;
+                while (k < tokenCount && !tokens[k].value.equals("]")) {
+                    if (tokens[k].type.equals("NUMBER")) length++;
+                    else if (!tokens[k].value.equals(",")) break;
+                    k++;
+                }
+                if (k < tokenCount && tokens[k].value.equals("]")) lists.put(name, new int[]{length, i});
+            }
+        }
+        for (String name : notConstant) lists.remove(name);
+        return lists;
+    }
+
+    // name -> {value, token index of its declaration}. Only top-level
+    // 'make num x := <literal>' that is never a loop variable qualifies.
+    private Map<String, int[]> collectConstants() {
+        Map<String, int[]> constants = new HashMap<>();
+        Set<String> notConstant = new HashSet<>();
+        int depth = 0;
+        for (int i = 0; i < tokenCount; i++) {
+            Token t = tokens[i];
+            if (t.value.equals("{")) depth++;
+            else if (t.value.equals("}")) depth--;
+            else if (!t.type.equals("KEYWORD") || i + 1 >= tokenCount) continue;
+            else if (t.value.equals("loop") || t.value.equals("ploop")) notConstant.add(tokens[i+1].value);
+            else if (t.value.equals("make") && i + 4 < tokenCount) {
+                String name = tokens[i+2].value;
+                boolean literal = tokens[i+1].value.equals("num") && tokens[i+3].value.equals(":=")
+                                  && tokens[i+4].type.equals("NUMBER");
+                if (depth > 0 || !literal || constants.containsKey(name)) { notConstant.add(name); continue; }
+                constants.put(name, new int[]{tokens[i+4].num, i});
+            }
+        }
+        for (String name : notConstant) constants.remove(name);
+        return constants;
+    }
+
+    private Integer constOperand(int index, Map<String, int[]> constants) {
+        if (index >= tokenCount) return null;
+        Token t = tokens[index];
+        if (index + 1 < tokenCount && (tokens[index+1].value.equals("[") || tokens[index+1].value.equals("("))) return null;
+        if (t.type.equals("NUMBER")) return t.num;
+        if (t.type.equals("IDENTIFIER")) {
+            int[] c = constants.get(t.value);
+            if (c != null && c[1] < index) return c[0];
+        }
+        return null;
+    }
+
+    // Runs the statements in tokens [from, to)
+    private void execute(int from, int to) throws SyntaxException {
+        int i = from;
+
+        while (i < to) {
+            Token t = tokens[i];
+            
+            if (executed++ > statementLimit) throw haltError();
+            steps++;
+            if (profiler != null) profiler.statement(line(t));
+
+            // === PRINT ===
+            if (t.value.equals("print")) {
+                ensureToken(i + 1);
+                String output = "";
+                Token next = tokens[i+1];
+                
+                if (next.type.equals("STRING")) {
+                    output = next.value; 
+                    i += 2;
+                } else {
+                    int val = resolveNumber(i + 1);
+                    output = String.valueOf(val);
+                    int stride = getStride(i + 1);
+                    i += (1 + stride);
+                }
+                console.accept(output + "\n");
+            }
+
+            // === MAKE ===
+            else if (t.value.equals("make")) {
+                ensureToken(i + 4);
+                String type = tokens[i+1].value;
+                String name = tokens[i+2].value;
+                
+                if (!tokens[i+2].type.equals("IDENTIFIER")) throw new SyntaxException("Line " + line(t) + ": invalid variable name '" + name + "'.");
+                if (!tokens[i+3].value.equals(":=")) throw new SyntaxException("Line " + line(t) + ": Expected ':=' in variable declaration.");
+                if (isKeyword(name)) throw new SyntaxException("Line " + line(t) + ": Cannot use keyword '" + name + "' as variable name.");
+                if (varExists(name)) throw new SyntaxException("Line " + line(t) + ": Variable '" + name + "' is already defined.");
+
+                if (type.equals("num")) {
+                    int val = resolveNumber(i + 4);
+                    saveScalar(name, val);
+                    int stride = getStride(i + 4);
+                    i += (4 + stride);
+                } else if (type.equals("list") && tokens[i+4].value.equals("load")) {
+                    // make list x := load "file.bin" (mapped, not copied)
+                    ensureToken(i + 5);
+                    if (!tokens[i+5].type.equals("STRING")) throw new SyntaxException("Line " + line(t) + ": Expected a file name in quotes after 'load'.");
+                    try {
+                        saveList(name, EzList.map(Paths.get(tokens[i+5].value)));
+                    } catch (IOException e) {
+                        throw new SyntaxException("Line " + line(t) + ": Cannot load '" + tokens[i+5].value + "': " + e.getMessage());
+                    }
+                    i += 6;
+                } else if (type.equals("list")) {
+                    if (!tokens[i+4].value.equals("[")) throw new SyntaxException("Line " + line(t) + ": List must start with '['.");
+                    int k = i + 5;
+                    int[] buffer = new int[100];
+                    int count = 0;
+                    
+                    while (k < tokenCount && !tokens[k].value.equals("]")) {
+                        if (tokens[k].type.equals("NUMBER")) {
+                            buffer[count++] = tokens[k].num;
+                        } else if (tokens[k].type.equals("SYMBOL") && tokens[k].value.equals(",")) {
+                            // ignore commas
+                        } else {
+                            throw new SyntaxException("Line " + line(tokens[k]) + ": Invalid item in list. Only numbers allowed.");
+                        }
+                        k++;
+                    }
+                    if (k >= tokenCount) throw new SyntaxException("Line " + line(t) + ": Unclosed list.");
+                    
+                    int[] finalArr = new int[count];
+                    System.arraycopy(buffer, 0, finalArr, 0, count);
+                    saveList(name, EzList.of(finalArr));
+                    i = k + 1;
+                } else {
+                    throw new SyntaxException("Line " + line(t) + ": Unknown type '" + type + "'. Use 'num' or 'list'.");
+                }
+            }
+
+            // === IF STATEMENT ===
+            else if (t.value.equals("if")) {
+                ensureToken(i + 4);
+                int offset = tokens[i+1].value.equals("(") ? 2 : 1; 
+                
+                int leftIndex = i + offset;
+                int leftVal = resolveNumber(leftIndex);
+                int leftStride = getStride(leftIndex); 
+
+                int opIndex = leftIndex + leftStride;
+                ensureToken(opIndex);
+                String op = tokens[opIndex].value;
+
+                int rightIndex = opIndex + 1;
+                int rightVal = resolveNumber(rightIndex);
+                int rightStride = getStride(rightIndex);
+
+                int braceIndex = rightIndex + rightStride;
+                ensureToken(braceIndex);
+                if (tokens[braceIndex].value.equals(")")) braceIndex++; 
+                
+                if (!tokens[braceIndex].value.equals("{")) 
+                    throw new SyntaxException("Line " + line(t) + ": Missing '{' after if condition.");
+
+                boolean cond = false;
+                if (op.equals(">")) cond = leftVal > rightVal;
+                else if (op.equals("<")) cond = leftVal < rightVal;
+                else if (op.equals("==")) cond = leftVal == rightVal;
+                else throw new SyntaxException("Line " + line(t) + ": Unknown operator '" + op + "'");
+
+                if (!cond) {
+                    i = findBlockEnd(i);
+                } else {
+                    if (stackTop >= MAX_SCOPE_DEPTH) throw new SyntaxException("Stack Overflow: Nested too deep.");
+                    scopeStack[stackTop++] = "IF";
+                    i = braceIndex + 1;
+                }
+            }
+
+            // === LOOP STATEMENT ===
+            else if (t.value.equals("loop")) {
+                ensureToken(i + 6);
+                String varName = tokens[i+1].value;
+                int startVal, endVal, braceIndex;
+
+                if (t.constBounds) {
+                    // Precomputed by optimizeProgram(), header already checked there
+                    startVal = t.boundStart;
+                    endVal = t.boundStart + t.tripCount;
+                    braceIndex = t.bodyIndex - 1;
+                } else {
+                    if(!tokens[i+2].value.equals("from")) throw new SyntaxException("Line " + line(t) + ": Loop missing 'from'.");
+                    
+                    int fromIndex = i + 3;
+                    startVal = resolveNumber(fromIndex);
+                    int fromStride = getStride(fromIndex);
+                    
+                    int toKwIndex = fromIndex + fromStride;
+                    ensureToken(toKwIndex);
+                    if(!tokens[toKwIndex].value.equals("to")) throw new SyntaxException("Line " + line(tokens[toKwIndex]) + ": Loop missing 'to'.");
+                    
+                    int toValIndex = toKwIndex + 1;
+                    endVal = resolveNumber(toValIndex);
+                    int toStride = getStride(toValIndex);
+                    
+                    braceIndex = toValIndex + toStride;
+                    ensureToken(braceIndex);
+                    if(!tokens[braceIndex].value.equals("{")) throw new SyntaxException("Line " + line(tokens[braceIndex]) + ": Loop missing '{'.");
+                }
+
+                // Determine if we are starting a new loop or iterating an existing one
+                boolean isNewLoop = (loopDepth == 0 || !loopVarStack[loopDepth-1].equals(varName) 
+                                     || loopStartStack[loopDepth-1] != i);
+                
+                if (isNewLoop) {
+                    // *** BUG FIX: THIS CHECK IS NOW INSIDE isNewLoop ***
+                    // Only check for nesting conflict if we are actually starting a new loop layer
+                    if (loopDepth > 0 && loopVarStack[loopDepth-1].equals(varName)) {
+                        throw new SyntaxException("Line " + line(t) + ": Cannot nest loop with same variable '" + varName + "'.");
+                    }
+
+                    if(varExists(varName)) {
+                        if(!getVarType(varName).equals("NUM")) throw new SyntaxException("Line " + line(t) + ": Loop variable '" + varName + "' must be a number.");
+                    }
+                    saveScalar(varName, startVal);
+                    
+                    loopStartStack[loopDepth] = i;
+                    loopVarStack[loopDepth] = varName;
+                    loopLimitStack[loopDepth] = endVal;
+                    loopDepth++;
+                    if (profiler != null) profiler.enterLoop(line(t), varName);
+                    if (stackTop >= MAX_SCOPE_DEPTH) throw new SyntaxException("Stack Overflow: Loop nested too deep.");
+                    scopeStack[stackTop++] = "LOOP";
+                    i = braceIndex + 1;
+                } else {
+                    int currentVal = getScalar(varName);
+                    if (currentVal >= endVal) {
+                        loopDepth--;
+                        if (profiler != null) profiler.exitLoop();
+                        i = findBlockEnd(i);
+                    } else {
+                        scopeStack[stackTop++] = "LOOP";
+                        i = braceIndex + 1;
+                    }
+                }
+            }
+
+            // === CLOSING BRACE ===
+            else if (t.value.equals("}")) {
+                if (stackTop > 0) {
+                    String scope = scopeStack[--stackTop];
+                    if (scope.equals("IF")) {
+                        i++;
+                    } else if (scope.equals("LOOP")) {
+                        int depth = loopDepth - 1;
+                        if (depth < 0) throw new SyntaxException("Critical Error: Loop Stack corrupted.");
+                        
+                        String loopVar = loopVarStack[depth];
+                        int currentVal = getScalar(loopVar);
+                        saveScalar(loopVar, currentVal + 1);
+                        if (profiler != null) profiler.loopIteration();
+                        i = loopStartStack[depth]; // Jump back to start of loop
+                    }
+                } else {
+                    throw new SyntaxException("Line " + line(t) + ": Unexpected '}'.");
+                }
+            }
+
+            // === SET (list element assignment) ===
+            else if (t.type.equals("KEYWORD") && t.value.equals("set")) {
+                ensureToken(i + 6);
+                String name = tokens[i+1].value;
+                if (!tokens[i+2].value.equals("[")) throw new SyntaxException("Line " + line(t) + ": Expected '[' after list name in set.");
+                int arrIndex = resolveIndex(t, tokens[i+3]);
+                if (!tokens[i+4].value.equals("]")) throw new SyntaxException("Line " + line(t) + ": Expected ']' in set.");
+                if (!tokens[i+5].value.equals(":=")) throw new SyntaxException("Line " + line(t) + ": Expected ':=' in set.");
+                int val = resolveNumber(i + 6);
+                EzList.HeapList list = writableListArgument(i + 1);
+                if (arrIndex < 0 || arrIndex >= list.length()) throw new SyntaxException("Line " + line(t) + ": Index [" + arrIndex + "] out of bounds for '" + name + "'.");
+                list.set(arrIndex, val);
+                listAccesses++;
+                i += 6 + getStride(i + 6);
+            }
+
+            // === PARALLEL LOOP ===
+            else if (t.type.equals("KEYWORD") && t.value.equals("ploop")) {
+                i = runParallelLoop(i);
+            }
+
+            // === FILL (list builtin statement) ===
+            else if (t.type.equals("IDENTIFIER") && t.value.equals("fill") && i + 1 < tokenCount && tokens[i+1].value.equals("(")) {
+                ensureToken(i + 5);
+                EzList.HeapList list = writableListArgument(i + 2);
+                if (!tokens[i+3].value.equals(",")) throw new SyntaxException("Line " + line(t) + ": Expected ',' after list name in fill.");
+                int val = resolveNumber(i + 4);
+                int closeIndex = i + 4 + getStride(i + 4);
+                ensureToken(closeIndex);
+                if (!tokens[closeIndex].value.equals(")")) throw new SyntaxException("Line " + line(t) + ": Missing ')' in fill.");
+                ListOps.fill(list, val);
+                i = closeIndex + 1;
+            }
+            else {
+                 if(t.type.equals("IDENTIFIER")) throw new SyntaxException("Line " + line(t) + ": Unknown command '" + t.value + "'");
+                i++;
+            }
+        }
+    }
+
+    // === HELPER METHODS ===
+
+    private int getStride(int index) {
+        if (index >= tokenCount) return 0;
+        Token t = tokens[index];
+        if (t.type.equals("IDENTIFIER")) {
+            if (index + 1 < tokenCount && tokens[index+1].value.equals("[")) {
+                return 4; // var, [, index, ]
+            }
+            if (index + 1 < tokenCount && tokens[index+1].value.equals("(") && isBuiltin(t.value)) {
+                if (t.value.equals("count")) return 5 + getStride(index + 4); // count, (, list, op, value..., )
+                return 4; // fn, (, list, )
+            }
+        }
+        return 1;
+    }
+
+    // === LIST BUILTINS ===
+
+    private boolean isBuiltin(String name) {
+        return name.equals("sum") || name.equals("min") || name.equals("max") || name.equals("count");
+    }
+
+    // sum(x), min(x), max(x), count(x > n): one native pass over the list
+    private int callBuiltin(int index) throws SyntaxException {
+        Token t = tokens[index];
+        ensureToken(index + 3);
+        EzList list = listArgument(index + 2);
+        String listName = tokens[index+2].value;
+
+        if (t.value.equals("count")) {
+            ensureToken(index + 4);
+            String op = tokens[index+3].value;
+            int n = resolveNumber(index + 4);
+            int closeIndex = index + 4 + getStride(index + 4);
+            ensureToken(closeIndex);
+            if (!tokens[closeIndex].value.equals(")")) throw new SyntaxException("Line " + line(t) + ": Missing ')' in count.");
+            if (op.equals(">")) return ListOps.countGreater(list, n);
+            if (op.equals("<")) return ListOps.countLess(list, n);
+            if (op.equals("==")) return ListOps.countEqual(list, n);
+            throw new SyntaxException("Line " + line(t) + ": Unknown operator '" + op + "' in count.");
+        }
+
+        if (!tokens[index+3].value.equals(")")) throw new SyntaxException("Line " + line(t) + ": Missing ')' in " + t.value + ".");
+        if (t.value.equals("sum")) {
+            long total = ListOps.sum(list);
+            if (total > Integer.MAX_VALUE || total < Integer.MIN_VALUE) throw new SyntaxException("Line " + line(t) + ": sum(" + listName + ") is too large.");
+            return (int) total;
+        }
+        if (list.length() == 0) throw new SyntaxException("Line " + line(t) + ": " + t.value + "() of empty list '" + listName + "'.");
+        return t.value.equals("min") ? ListOps.min(list) : ListOps.max(list);
+    }
+
+    private EzList.HeapList writableListArgument(int index) throws SyntaxException {
+        EzList list = listArgument(index);
+        if (list.isReadOnly()) throw new SyntaxException("Line " + line(tokens[index]) + ": List '" + tokens[index].value + "' was loaded from a file and is read-only.");
+        return (EzList.HeapList) list;
+    }
+
+    private EzList listArgument(int index) throws SyntaxException {
+        Token t = tokens[index];
+        int slot = findSlot(t.value);
+        if (slot < 0) throw new SyntaxException("Line " + line(t) + ": Undefined list '" + t.value + "'.");
+        if (!varTypes[slot].equals("LIST")) throw new SyntaxException("Line " + line(t) + ": Variable '" + t.value + "' is not a list.");
+        return listMemory[slot];
+    }
+
+    private void ensureToken(int index) throws SyntaxException {
+        if (index >= tokenCount) throw new SyntaxException("Unexpected end of code. Expected more tokens.");
+    }
+
+    private int findBlockEnd(int startIndex) {
+        int index = startIndex;
+        int braces = 0;
+        while (index < tokenCount && !tokens[index].value.equals("{")) index++;
+        if (index < tokenCount) { braces = 1; index++; }
+        while (index < tokenCount && braces > 0) {
+            if (tokens[index].value.equals("{")) braces++;
+            if (tokens[index].value.equals("}")) braces--;
+            index++;
+        }
+        return index;
+    }
+
+    private int resolveNumber(int index) throws SyntaxException {
+        ensureToken(index);
+        Token t = tokens[index];
+        
+        if (t.type.equals("NUMBER")) return t.num;
+        
+        if (t.type.equals("IDENTIFIER")) {
+            String name = t.value;
+            if (index + 1 < tokenCount && tokens[index+1].value.equals("(") && isBuiltin(name)) {
+                return callBuiltin(index);
+            }
+            if (index + 1 < tokenCount && tokens[index+1].value.equals("[")) {
+                ensureToken(index + 3);
+                Token idxTok = tokens[index+2];
+
+                listAccesses++;
+                if (t.boundsProven) {
+                    // Fast path: optimizeProgram() proved the index in range
+                    if (t.slot < 0) t.slot = findSlot(name);
+                    if (idxTok.slot < 0) idxTok.slot = findSlot(idxTok.value);
+                    return listMemory[t.slot].get(scalarMemory[idxTok.slot]);
+                }
+
+                int arrIndex = resolveIndex(t, idxTok);
+                // Bounds are checked here: any int, MIN_VALUE included, is a valid element
+                EzList list = listArgument(index);
+                if (arrIndex < 0 || arrIndex >= list.length()) throw new SyntaxException("Line " + line(t) + ": Index [" + arrIndex + "] out of bounds for '" + name + "'.");
+                return list.get(arrIndex);
+            } else {
+                int val = getScalar(name);
+                if (val == Integer.MIN_VALUE) {
+                    if (!varExists(name)) throw new SyntaxException("Line " + line(t) + ": Undefined variable '" + name + "'.");
+                    if (getVarType(name).equals("LIST")) throw new SyntaxException("Line " + line(t) + ": Cannot use list '" + name + "' as a number.");
+                }
+                return val;
+            }
+        }
+        throw new SyntaxException("Line " + line(t) + ": Expected a number or variable, found '" + t.value + "'");
+    }
+
+    private int resolveIndex(Token owner, Token idxTok) throws SyntaxException {
+        if (idxTok.type.equals("NUMBER")) return idxTok.num;
+        if (Character.isLetter(idxTok.value.codePointAt(0))) {
+            int arrIndex = getScalar(idxTok.value);
+            if (arrIndex == Integer.MIN_VALUE) throw new SyntaxException("Line " + line(owner) + ": Undefined index variable '" + idxTok.value + "'.");
+            return arrIndex;
+        }
+        throw new SyntaxException("Line " + line(owner) + ": Invalid array index.");
+    }
+
+    // === PARALLEL LOOP ===
+
+    // 'ploop i from A to B { ... }' runs the same iterations as 'loop' (the
+    // body runs at least once), split across the common ForkJoinPool. Each
+    // split buffers its output; buffers are printed in iteration order, so
+    // the console reads exactly like the serial loop. Returns the index
+    // after the closing brace.
+    private int runParallelLoop(int i) throws SyntaxException {
+        Token t = tokens[i];
+        ensureToken(i + 6);
+        String varName = tokens[i+1].value;
+        if(!tokens[i+2].value.equals("from")) throw new SyntaxException("Line " + line(t) + ": Loop missing 'from'.");
+        int startVal = resolveNumber(i + 3);
+        int toKwIndex = i + 3 + getStride(i + 3);
+        ensureToken(toKwIndex);
+        if(!tokens[toKwIndex].value.equals("to")) throw new SyntaxException("Line " + line(tokens[toKwIndex]) + ": Loop missing 'to'.");
+        int endVal = resolveNumber(toKwIndex + 1);
+        int braceIndex = toKwIndex + 1 + getStride(toKwIndex + 1);
+        ensureToken(braceIndex);
+        if(!tokens[braceIndex].value.equals("{")) throw new SyntaxException("Line " + line(tokens[braceIndex]) + ": Loop missing '{'.");
+
+        if (loopDepth > 0 && loopVarStack[loopDepth-1].equals(varName)) {
+            throw new SyntaxException("Line " + line(t) + ": Cannot nest loop with same variable '" + varName + "'.");
+        }
+        if(varExists(varName) && !getVarType(varName).equals("NUM")) {
+            throw new SyntaxException("Line " + line(t) + ": Loop variable '" + varName + "' must be a number.");
+        }
+        saveScalar(varName, startVal);
+
+        int bodyStart = braceIndex + 1;
+        int bodyEnd = findBlockEnd(i) - 1;
+        // Iterations are [startVal, last), in long so 'from 2147483647' does not
+        // wrap; the variable ends at (int) last, like the serial loop's i + 1
+        long last = Math.max(startVal + 1L, endVal);
+
+        if (profiler != null) {
+            // The profiler is single-threaded, so profile the serial order
+            for (long v = startVal; v < last; v++) {
+                executed += LOOP_STATEMENTS;
+                saveScalar(varName, (int) v);
+                execute(bodyStart, bodyEnd);
+            }
+        } else {
+            long iterations = last - startVal;
+            int splits = (int) Math.min(iterations, ForkJoinPool.getCommonPoolParallelism() * 4);
+            StringBuilder[] outputs = new StringBuilder[splits];
+            SyntaxException[] errors = new SyntaxException[splits];
+            EzLangRuntime[] workers = new EzLangRuntime[splits];
+            ForkJoinPool.commonPool().invoke(new ParallelSplit(varName, startVal, iterations, bodyStart, bodyEnd, 0, splits, splits, outputs, errors, workers));
+            for (EzLangRuntime w : workers) {
+                steps += w.steps;
+                lookups += w.lookups;
+                listAccesses += w.listAccesses;
+            }
+
+            for (int k = 0; k < splits; k++) {
+                console.accept(outputs[k].toString());
+                if (errors[k] != null) throw errors[k];
+                executed += workers[k].executed;
+                if (executed > statementLimit + 1) throw haltError();
+            }
+        }
+
+        saveScalar(varName, (int) last);
+        return bodyEnd + 1;
+    }
+
+    // Per iteration a serial loop also executes its '}' and its header again;
+    // a ploop charges the same, so both run out of budget at the same size
+    private static final int LOOP_STATEMENTS = 2;
+
+    private SyntaxException haltError() {
+        return new SyntaxException("Execution Halt: Infinite loop detected or program too long.");
+    }
+
+    // Splits [lo, hi) of the split ids in half until one split is left,
+    // then runs that split's share of the iterations on a worker runtime.
+    private class ParallelSplit extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final String varName;
+        private final int startVal, bodyStart, bodyEnd, lo, hi, splits;
+        private final long iterations;
+        private final StringBuilder[] outputs;
+        private final SyntaxException[] errors;
+        private final EzLangRuntime[] workers;
+
+        ParallelSplit(String varName, int startVal, long iterations, int bodyStart, int bodyEnd,
+                      int lo, int hi, int splits, StringBuilder[] outputs, SyntaxException[] errors, EzLangRuntime[] workers) {
+            this.varName = varName;
+            this.startVal = startVal;
+            this.iterations = iterations;
+            this.bodyStart = bodyStart;
+            this.bodyEnd = bodyEnd;
+            this.lo = lo;
+            this.hi = hi;
+            this.splits = splits;
+            this.outputs = outputs;
+            this.errors = errors;
+            this.workers = workers;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new ParallelSplit(varName, startVal, iterations, bodyStart, bodyEnd, lo, mid, splits, outputs, errors, workers),
+                          new ParallelSplit(varName, startVal, iterations, bodyStart, bodyEnd, mid, hi, splits, outputs, errors, workers));
+                return;
+            }
+            StringBuilder out = new StringBuilder();
+            outputs[lo] = out;
+            EzLangRuntime worker = new EzLangRuntime(EzLangRuntime.this, out::append);
+            workers[lo] = worker;
+            long first = startVal + iterations * lo / splits;
+            long end = startVal + iterations * (lo + 1) / splits;
+            try {
+                for (long v = first; v < end; v++) {
+                    worker.executed += LOOP_STATEMENTS;
+                    worker.saveScalar(varName, (int) v);
+                    worker.execute(bodyStart, bodyEnd);
+                }
+            } catch (SyntaxException e) {
+                errors[lo] = e;
+            }
+        }
+    }
+
+    private void addToken(String t, String v, int pos) {
+        addToken(t, v, pos, 0);
+    }
+
+    private void addToken(String t, String v, int pos, int num) {
+        if (tokenCount < MAX_TOKENS) {
+            tokens[tokenCount] = new Token(t, v, pos);
+            tokens[tokenCount].num = num;
+            tokenCount++;
+        }
+    }
+
+    private boolean isKeyword(String w) {
+        for (String s : LexerGrammars.EZLANG_KEYWORDS) if (s.equals(w)) return true;
+        return false;
+    }
+
+    // === MEMORY HELPERS ===
+
+    private int findSlot(String name) {
+        lookups++;
+        for(int k=0; k<varCount; k++) if(varNames[k].equals(name)) return k;
+        return -1;
+    }
+
+    private boolean varExists(String name) {
+        lookups++;
+        for(int k=0; k<varCount; k++) if(varNames[k].equals(name)) return true;
+        return false;
+    }
+    
+    private String getVarType(String name) {
+        lookups++;
+        for(int k=0; k<varCount; k++) if(varNames[k].equals(name)) return varTypes[k];
+        return "UNKNOWN";
+    }
+
+    private void saveScalar(String name, int val) {
+        lookups++;
+        for(int k=0; k<varCount; k++) {
+            if(varNames[k].equals(name)) { scalarMemory[k] = val; varTypes[k] = "NUM"; return; }
+        }
+        varNames[varCount] = name; varTypes[varCount] = "NUM"; scalarMemory[varCount] = val; varCount++;
+    }
+
+    private void saveList(String name, EzList arr) {
+        varNames[varCount] = name; varTypes[varCount] = "LIST"; listMemory[varCount] = arr; varCount++;
+    }
+
+    private int getScalar(String name) {
+        lookups++;
+        for(int k=0; k<varCount; k++) {
+            if(varNames[k].equals(name) && varTypes[k].equals("NUM")) return scalarMemory[k];
+        }
+        return Integer.MIN_VALUE;
+    }
+
+
+    // === INSPECTION (for the token and memory tables) ===
+
+    public int getTokenCount() { return tokenCount; }
+
+    // {line, type, value}
+    public Object[] tokenRow(int index) {
+        Token t = tokens[index];
+        return new Object[]{line(t), t.type, t.value};
+    }
+
+    public int getVarCount() { return varCount; }
+
+    // {name, type, value}
+    public Object[] memoryRow(int slot) {
+        String valStr = varTypes[slot].equals("NUM") ? String.valueOf(scalarMemory[slot]) : listMemory[slot].toString();
+        return new Object[]{varNames[slot], varTypes[slot], valStr};
+    }
+
+    // Source line of a token (binary search in the line index)
+    private int line(Token t) {
+        return lines.line(t.pos);
+    }
+
+    static class Token {
+        String type, value;
+        int pos; // char offset of the token in the source
+        int num; // decoded value of NUMBER tokens
+        // Filled in by optimizeProgram() for loops with constant bounds
+        boolean constBounds;
+        int boundStart, tripCount, bodyIndex;
+        boolean boundsProven; // 'list[i]' access proven in range
+        int slot = -1;        // cached memory slot for proven accesses
+        public Token(String t, String v, int p) { type = t; value = v; pos = p; }
+    }
+}
@@ -0,0 +1,220 @@
+// GENERATED by ScannerGenerator from LexerGrammars.ezLang() - do not edit.
+// Regenerate with: java ScannerGenerator .
+public final class EzLangScanner {
+
+    private EzLangScanner() {}
+
+    // ASCII whitespace, bit c set for char c (all of it is below 64)
+    private static final long SPACE_BITS = 0x1f0003e00L;
+
+    public static boolean scan(String input, LexerEngine.Sink sink) {
+        int n = input.length();
+        int i = 0;
+        int line = 1;
+
+        while (i < n) {
+            char c = input.charAt(i);
+
+            switch (c) {
+                case '\t': case '\n': case 11: case 12: case '\r': case 28: case 29: case 30:
+                case 31: case ' ':
+                    if (c == '\n') {
+                        line++;
+                        sink.newline(i);
+                    }
+                    i++;
+                    while (i < n && (c = input.charAt(i)) < 64 && (SPACE_BITS >>> c & 1) != 0) {
+                        if (c == '\n') {
+                            line++;
+                            sink.newline(i);
+                        }
+                        i++;
+                    }
+                    continue;
+                case '"': {
+                    int start = i++;
+                    boolean closed = false;
+                    while (i < n) {
+                        char s = input.charAt(i++);
+                        if (s == '"') { closed = true; break; }
+                        if (s == '\n') {
+                            line++;
+                            sink.newline(i - 1);
+                        }
+                    }
+                    if (!sink.string(start, i, closed, line)) return false;
+                    continue;
+                }
+                case '(': case ')': case ',': case ';': case '[': case ']': case '{': case '}':
+                    if (!sink.symbol(c, i, line)) return false;
+                    i++;
+                    continue;
+                case ':':
+                    if (i + 1 < n && input.charAt(i + 1) == '=') {
+                        if (!sink.operator(0, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (!sink.operator(4, i, i + 1, line)) return false;
+                    i++;
+                    continue;
+                case '<':
+                    if (i + 1 < n && input.charAt(i + 1) == '=') {
+                        if (!sink.operator(3, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (!sink.operator(7, i, i + 1, line)) return false;
+                    i++;
+                    continue;
+                case '=':
+                    if (i + 1 < n && input.charAt(i + 1) == '=') {
+                        if (!sink.operator(1, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (!sink.operator(5, i, i + 1, line)) return false;
+                    i++;
+                    continue;
+                case '>':
+                    if (i + 1 < n && input.charAt(i + 1) == '=') {
+                        if (!sink.operator(2, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (!sink.operator(6, i, i + 1, line)) return false;
+                    i++;
+                    continue;
+                case '0': case '1': case '2': case '3': case '4': case '5': case '6': case '7':
+                case '8': case '9':
+                    i = number(input, i, line, sink);
+                    if (i < 0) return false;
+                    continue;
+                case 'A': case 'B': case 'C': case 'D': case 'E': case 'F': case 'G': case 'H':
+                case 'I': case 'J': case 'K': case 'L': case 'M': case 'N': case 'O': case 'P':
+                case 'Q': case 'R': case 'S': case 'T': case 'U': case 'V': case 'W': case 'X':
+                case 'Y': case 'Z': case 'a': case 'b': case 'c': case 'd': case 'e': case 'f':
+                case 'g': case 'h': case 'i': case 'j': case 'k': case 'l': case 'm': case 'n':
+                case 'o': case 'p': case 'q': case 'r': case 's': case 't': case 'u': case 'v':
+                case 'w': case 'x': case 'y': case 'z':
+                    i = word(input, i, line, sink);
+                    if (i < 0) return false;
+                    continue;
+                default:
+                    if (c >= 128) {
+                        // Code-point path, so a surrogate pair is classified as one character
+                        int cp = input.codePointAt(i);
+                        if (Character.isWhitespace(cp)) { i += Character.charCount(cp); continue; }
+                        if (Character.isDigit(cp)) { i = number(input, i, line, sink); if (i < 0) return false; continue; }
+                        if (Character.isLetter(cp)) { i = word(input, i, line, sink); if (i < 0) return false; continue; }
+                        if (!sink.unknown(cp, i, line)) return false;
+                        i += Character.charCount(cp);
+                        continue;
+                    }
+                    if (!sink.unknown(c, i, line)) return false;
+                    i++;
+                    continue;
+            }
+        }
+        return true;
+    }
+
+    // value = decoded integer, or -1 if it does not fit in an int
+    private static int number(String input, int i, int line, LexerEngine.Sink sink) {
+        int n = input.length();
+        int start = i;
+        long value = 0;
+        while (i < n) {
+            char d = input.charAt(i);
+            int digit;
+            int len = 1;
+            if (d >= '0' && d <= '9') {
+                digit = d - '0';
+            } else if (d < 128) {
+                break;
+            } else {
+                int cp = input.codePointAt(i);
+                if (!Character.isDigit(cp)) break;
+                digit = Character.digit(cp, 10);
+                len = Character.charCount(cp);
+            }
+            if (value >= 0) {
+                value = value * 10 + digit;
+                if (value > Integer.MAX_VALUE) value = -1;
+            }
+            i += len;
+        }
+        return sink.number(start, i, value, line) ? i : -1;
+    }
+
+    private static final long WORD_PART_LO = 0x3ff000000000000L;
+    private static final long WORD_PART_HI = 0x7fffffe87fffffeL;
+
+    private static int word(String input, int i, int line, LexerEngine.Sink sink) {
+        int n = input.length();
+        int start = i;
+        while (i < n) {
+            char c = input.charAt(i);
+            if (c < 128) {
+                // The shift distance is masked to 6 bits, so c selects its bit in either half
+                if (((c < 64 ? WORD_PART_LO : WORD_PART_HI) >>> c & 1) == 0) break;
+                i++;
+            } else {
+                int cp = input.codePointAt(i);
+                if (!Character.isLetterOrDigit(cp)) break;
+                i += Character.charCount(cp);
+            }
+        }
+        return sink.word(start, i, keyword(input, start, i - start), line) ? i : -1;
+    }
+
+    // Index into the grammar's keyword list, or -1
+    private static int keyword(String s, int start, int length) {
+        switch (length) {
+            case 2:
+                switch (s.charAt(start)) {
+                    case 'i':
+                        if (s.charAt(start + 1) == 'f') return 2;
+                        return -1;
+                    case 't':
+                        if (s.charAt(start + 1) == 'o') return 10;
+                        return -1;
+                }
+                return -1;
+            case 3:
+                switch (s.charAt(start)) {
+                    case 'n':
+                        if (s.charAt(start + 1) == 'u' && s.charAt(start + 2) == 'm') return 4;
+                        return -1;
+                    case 's':
+                        if (s.charAt(start + 1) == 'e' && s.charAt(start + 2) == 't') return 7;
+                        return -1;
+                }
+                return -1;
+            case 4:
+                switch (s.charAt(start)) {
+                    case 'f':
+                        if (s.charAt(start + 1) == 'r' && s.charAt(start + 2) == 'o' && s.charAt(start + 3) == 'm') return 9;
+                        return -1;
+                    case 'l':
+                        if (s.charAt(start + 1) == 'i' && s.charAt(start + 2) == 's' && s.charAt(start + 3) == 't') return 3;
+                        if (s.charAt(start + 1) == 'o' && s.charAt(start + 2) == 'o' && s.charAt(start + 3) == 'p') return 5;
+                        if (s.charAt(start + 1) == 'o' && s.charAt(start + 2) == 'a' && s.charAt(start + 3) == 'd') return 8;
+                        return -1;
+                    case 'm':
+                        if (s.charAt(start + 1) == 'a' && s.charAt(start + 2) == 'k' && s.charAt(start + 3) == 'e') return 0;
+                        return -1;
+                }
+                return -1;
+            case 5:
+                switch (s.charAt(start)) {
+                    case 'p':
+                        if (s.charAt(start + 1) == 'r' && s.charAt(start + 2) == 'i' && s.charAt(start + 3) == 'n' && s.charAt(start + 4) == 't') return 1;
+                        if (s.charAt(start + 1) == 'l' && s.charAt(start + 2) == 'o' && s.charAt(start + 3) == 'o' && s.charAt(start + 4) == 'p') return 6;
+                        return -1;
+                }
+                return -1;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,78 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Storage behind an EzLang list. Lists from a literal live in a heap int[];
+// lists from 'load "file.bin"' are memory-mapped straight from the file
+// (little-endian 32-bit ints, no copy) so multi-GB datasets never enter
+// the heap. Every list can be read (length/get); only heap lists can be
+// written, so set() lives on HeapList alone.
+public abstract class EzList {
+
+    public abstract int length();
+    public abstract int get(int index);
+    public abstract boolean isReadOnly();
+
+    public static EzList of(int[] data) {
+        return new HeapList(data);
+    }
+
+    public static EzList map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long bytes = channel.size();
+            if (bytes % 4 != 0) throw new IOException("size " + bytes + " is not a multiple of 4 bytes");
+            if (bytes / 4 > Integer.MAX_VALUE) throw new IOException("more than " + Integer.MAX_VALUE + " ints");
+            int length = (int) (bytes / 4);
+
+            // One mapping is capped at 2 GB, so map the file in fixed-size chunks
+            int chunkCount = (int) (((long) length + MappedList.CHUNK_INTS - 1) >>> MappedList.CHUNK_SHIFT);
+            IntBuffer[] chunks = new IntBuffer[chunkCount];
+            for (int c = 0; c < chunkCount; c++) {
+                long offset = (long) c * MappedList.CHUNK_INTS * 4;
+                long size = Math.min((long) MappedList.CHUNK_INTS * 4, bytes - offset);
+                chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, offset, size)
+                                   .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            }
+            return new MappedList(file, chunks, length);
+        }
+    }
+
+    // === HEAP BACKING ===
+    public static final class HeapList extends EzList {
+        final int[] data;
+
+        HeapList(int[] data) { this.data = data; }
+
+        @Override public int length() { return data.length; }
+        @Override public int get(int index) { return data[index]; }
+        public void set(int index, int value) { data[index] = value; }
+        @Override public boolean isReadOnly() { return false; }
+        @Override public String toString() { return Arrays.toString(data); }
+    }
+
+    // === MEMORY-MAPPED BACKING ===
+    public static final class MappedList extends EzList {
+        static final int CHUNK_SHIFT = 28;                // 2^28 ints = 1 GB per mapping
+        static final int CHUNK_INTS = 1 << CHUNK_SHIFT;
+        static final int CHUNK_MASK = CHUNK_INTS - 1;
+
+        final Path file;
+        final IntBuffer[] chunks;
+        final int length;
+
+        MappedList(Path file, IntBuffer[] chunks, int length) {
+            this.file = file;
+            this.chunks = chunks;
+            this.length = length;
+        }
+
+        @Override public int length() { return length; }
+        @Override public int get(int index) { return chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK); }
+        @Override public boolean isReadOnly() { return true; }
+        @Override public String toString() { return "<mapped " + file.getFileName() + ", " + length + " ints>"; }
+    }
+}
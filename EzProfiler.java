@@ -0,0 +1,156 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Opt-in per-line profiler for the EzLang interpreter (artix).
+// The interpreter calls statement(line) before dispatching each statement; the
+// time until the next call is charged to that line. When profiling is off the
+// interpreter holds a null profiler, so the only cost is one null check.
+public class EzProfiler {
+
+    // === PER-LINE COUNTERS (index = source line) ===
+    private long[] lineCounts = new long[64];
+    private long[] lineNanos = new long[64];
+
+    // === PER-LOOP COUNTERS (key = line of the loop header) ===
+    private final Map<Integer, long[]> loopStats = new LinkedHashMap<>(); // {entries, iterations, nanos}
+
+    // === COLLAPSED STACKS (key = "main;loop i@5;line 9") ===
+    private final Map<String, long[]> stacks = new LinkedHashMap<>();
+
+    // === OPEN LOOP FRAMES ===
+    private final List<Integer> frameLines = new ArrayList<>();
+    private final List<Long> frameStart = new ArrayList<>();
+    private final List<String> framePaths = new ArrayList<>();
+    private String currentPath = "main";
+
+    private int currentLine = -1;
+    private long lastNanos;
+
+    // Called right before the statement on this line is executed
+    public void statement(int line) {
+        long now = System.nanoTime();
+        flush(now);
+        ensureLine(line);
+        lineCounts[line]++;
+        currentLine = line;
+        lastNanos = now;
+    }
+
+    public void enterLoop(int line, String varName) {
+        long[] s = loopStats.computeIfAbsent(line, k -> new long[3]);
+        s[0]++;
+        s[1]++; // first iteration
+        frameLines.add(line);
+        frameStart.add(System.nanoTime());
+        framePaths.add(currentPath);
+        currentPath = currentPath + ";loop " + varName + "@" + line;
+    }
+
+    public void loopIteration() {
+        if (frameLines.isEmpty()) return;
+        loopStats.get(frameLines.get(frameLines.size() - 1))[1]++;
+    }
+
+    public void exitLoop() {
+        if (frameLines.isEmpty()) return;
+        int top = frameLines.size() - 1;
+        long now = System.nanoTime();
+        flush(now);
+        lastNanos = now;
+        long[] s = loopStats.get(frameLines.get(top));
+        s[1]--; // the last jump-back is only the exit check
+        s[2] += now - frameStart.get(top);
+        currentPath = framePaths.get(top);
+        frameLines.remove(top);
+        frameStart.remove(top);
+        framePaths.remove(top);
+    }
+
+    // Close every open frame (normal end or aborted by an error)
+    public void finish() {
+        flush(System.nanoTime());
+        currentLine = -1;
+        while (!frameLines.isEmpty()) {
+            int top = frameLines.size() - 1;
+            loopStats.get(frameLines.get(top))[2] += System.nanoTime() - frameStart.get(top);
+            currentPath = framePaths.get(top);
+            frameLines.remove(top);
+            frameStart.remove(top);
+            framePaths.remove(top);
+        }
+    }
+
+    private void flush(long now) {
+        if (currentLine < 0) return;
+        long elapsed = now - lastNanos;
+        lineNanos[currentLine] += elapsed;
+        stacks.computeIfAbsent(currentPath + ";line " + currentLine, k -> new long[1])[0] += elapsed;
+        currentLine = -1;
+    }
+
+    private void ensureLine(int line) {
+        if (line < lineCounts.length) return;
+        int size = lineCounts.length;
+        while (size <= line) size *= 2;
+        long[] counts = new long[size];
+        long[] nanos = new long[size];
+        System.arraycopy(lineCounts, 0, counts, 0, lineCounts.length);
+        System.arraycopy(lineNanos, 0, nanos, 0, lineNanos.length);
+        lineCounts = counts;
+        lineNanos = nanos;
+    }
+
+    // === REPORTS ===
+
+    // Hot-line table, slowest line first
+    public String report(String source) {
+        String[] srcLines = source.split("\n", -1);
+        long total = 0;
+        List<Integer> lines = new ArrayList<>();
+        for (int l = 0; l < lineCounts.length; l++) {
+            if (lineCounts[l] > 0) { lines.add(l); total += lineNanos[l]; }
+        }
+        lines.sort((a, b) -> Long.compare(lineNanos[b], lineNanos[a]));
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("--- PROFILE: HOT LINES ---\n");
+        sb.append(String.format("%-6s %10s %12s %7s  %s%n", "Line", "Count", "Time (us)", "%", "Source"));
+        for (int l : lines) {
+            double pct = total == 0 ? 0 : 100.0 * lineNanos[l] / total;
+            String src = l - 1 < srcLines.length ? srcLines[l - 1].trim() : "";
+            sb.append(String.format("%-6d %10d %12.1f %6.1f%%  %s%n", l, lineCounts[l], lineNanos[l] / 1000.0, pct, src));
+        }
+
+        if (!loopStats.isEmpty()) {
+            sb.append("--- PROFILE: LOOPS ---\n");
+            sb.append(String.format("%-6s %8s %10s %12s%n", "Line", "Entries", "Iterations", "Time (us)"));
+            for (Map.Entry<Integer, long[]> e : loopStats.entrySet()) {
+                long[] s = e.getValue();
+                sb.append(String.format("%-6d %8d %10d %12.1f%n", e.getKey(), s[0], s[1], s[2] / 1000.0));
+            }
+        }
+        return sb.toString();
+    }
+
+    // Collapsed-stack format ("frame;frame value" per line), readable by
+    // flamegraph.pl and speedscope
+    public String collapsedStacks() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, long[]> e : stacks.entrySet()) {
+            sb.append(e.getKey()).append(' ').append(e.getValue()[0]).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public void writeCollapsedStacks(Path file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.print(collapsedStacks());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+import java.nio.ByteBuffer;
+import java.util.List;
+
+// The three analyses with their results as text, for callers without a
+// window: AnalysisDaemon and HeadlessLauncher. Every method returns
+// {status, body} with status OK or ERROR (input had errors). Nothing here
+// touches java.awt or javax.swing.
+public class HeadlessAnalysis {
+
+    public static final String LANGUAGES = "arraylex, javasubset or ezlang";
+
+    // null if the language is not one of LANGUAGES
+    public static String[] analyze(String language, JavaSubsetAnalyzer analyzer, String source) {
+        switch (language) {
+            case "arraylex": return arrayLex(source);
+            case "javasubset": return javaSubset(analyzer, source);
+            case "ezlang": return ezLang(source);
+            default: return null;
+        }
+    }
+
+    public static String[] arrayLex(String source) {
+        StringBuilder body = new StringBuilder();
+        boolean unknown = false;
+        for (ArrayLexer.Token t : ArrayLexer.analyzeArraySource(source)) {
+            body.append(t).append('\n');
+            if (t.type == ArrayLexer.TokenType.UNKNOWN) unknown = true;
+        }
+        return new String[]{unknown ? "ERROR" : "OK", body.toString()};
+    }
+
+    // Same body from UTF-8 bytes, without decoding the whole source
+    public static String[] arrayLex(ByteBuffer utf8) {
+        ArrayLexer.Utf8Tokens tokens = ArrayLexer.analyzeArrayBytes(utf8);
+        StringBuilder body = new StringBuilder();
+        boolean unknown = false;
+        for (int i = 0; i < tokens.size(); i++) {
+            body.append(tokens.token(i)).append('\n');
+            if (tokens.type(i) == ArrayLexer.TokenType.UNKNOWN) unknown = true;
+        }
+        return new String[]{unknown ? "ERROR" : "OK", body.toString()};
+    }
+
+    public static String[] javaSubset(JavaSubsetAnalyzer analyzer, String source) {
+        JavaSubsetAnalyzer.Result result = analyzer.analyze(source);
+        StringBuilder body = new StringBuilder();
+        for (String[] row : result.rows) body.append(row[0]).append('\t').append(row[1]).append('\n');
+        for (JavaSubsetAnalyzer.Dialog d : result.dialogs) body.append("! ").append(d.title).append(": ").append(d.message).append('\n');
+        return new String[]{result.dialogs.isEmpty() ? "OK" : "ERROR", body.toString()};
+    }
+
+    // Collect-all mode: every diagnostic, one "Line N, col C: message" per line
+    public static String[] javaSubsetDiagnostics(JavaSubsetAnalyzer analyzer, String source) {
+        List<JavaSubsetAnalyzer.Diagnostic> diagnostics = analyzer.diagnose(source);
+        StringBuilder body = new StringBuilder();
+        for (JavaSubsetAnalyzer.Diagnostic d : diagnostics) body.append(d).append('\n');
+        return new String[]{diagnostics.isEmpty() ? "OK" : "ERROR", body.toString()};
+    }
+
+    // Same phases as artix.executeProgram, output collected instead of shown
+    public static String[] ezLang(String source) {
+        StringBuilder body = new StringBuilder();
+        EzLangRuntime runtime = new EzLangRuntime(body::append, null);
+        try {
+            if (runtime.runTokenizer(source)) {
+                runtime.preCheckStructure();
+                runtime.optimizeProgram();
+                runtime.runInterpreter();
+            }
+            return new String[]{"OK", body.toString()};
+        } catch (EzLangRuntime.SyntaxException e) {
+            body.append("RUNTIME ERROR:\n").append(e.getMessage()).append('\n');
+            return new String[]{"ERROR", body.toString()};
+        }
+    }
+
+    public static String unknownLanguage(String language) {
+        return "Unknown language '" + language + "'. Use " + LANGUAGES + ".";
+    }
+}
@@ -0,0 +1,125 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Command-line entry point for scripts. Runs one analysis per file (or on
+// stdin) and prints the same text AnalysisDaemon would return. The window
+// classes' main() methods all start the AWT toolkit; nothing reachable from
+// here loads a java.awt or javax.swing class, and JMX registration is off
+// unless -Dlexicanalyze.jmx=true is given. ArrayLex files past 2 GB are
+// scanned through LargeInput and printed token by token.
+//
+// Usage: java HeadlessLauncher <arraylex|javasubset|ezlang> [file...]
+//        java HeadlessLauncher javasubset --all [file...]   (every diagnostic, not just the first)
+//        java HeadlessLauncher --train   (AppCDS training workload, see StartupBenchmark)
+// Exit status: 0 = all OK, 1 = some input had errors, 2 = usage or I/O problem.
+public class HeadlessLauncher {
+
+    private static void usage() {
+        System.err.println("Usage: java HeadlessLauncher <arraylex|javasubset|ezlang> [file...]");
+        System.err.println("       java HeadlessLauncher javasubset --all [file...]");
+        System.exit(2);
+    }
+
+    public static void main(String[] args) {
+        if (System.getProperty("lexicanalyze.jmx") == null) System.setProperty("lexicanalyze.jmx", "false");
+
+        if (args.length == 1 && args[0].equals("--train")) {
+            train();
+            return;
+        }
+        if (args.length == 0) usage();
+
+        String language = args[0];
+        boolean all = args.length > 1 && args[1].equals("--all");
+        if (all && !language.equals("javasubset")) usage();
+        int first = all ? 2 : 1; // index of the first file
+        JavaSubsetAnalyzer analyzer = new JavaSubsetAnalyzer();
+        PrintStream out = new PrintStream(System.out, false, StandardCharsets.UTF_8);
+        int exit = 0;
+        try {
+            if (args.length == first) {
+                String source = new String(System.in.readAllBytes(), StandardCharsets.UTF_8);
+                exit = print(out, all ? HeadlessAnalysis.javaSubsetDiagnostics(analyzer, source) : HeadlessAnalysis.analyze(language, analyzer, source), null, language);
+            }
+            for (int a = first; a < args.length; a++) {
+                String name = args.length > first + 1 ? args[a] : null;
+                String[] result;
+                if (language.equals("arraylex") && Files.size(Paths.get(args[a])) > Integer.MAX_VALUE) {
+                    exit = Math.max(exit, printLarge(out, ArrayLexer.analyzeLargeFile(Paths.get(args[a])), name));
+                    continue;
+                } else if (language.equals("arraylex")) {
+                    // Scanned as mapped UTF-8 bytes, never decoded as a whole
+                    try (FileChannel channel = FileChannel.open(Paths.get(args[a]), StandardOpenOption.READ)) {
+                        result = HeadlessAnalysis.arrayLex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+                    }
+                } else {
+                    String source = new String(Files.readAllBytes(Paths.get(args[a])), StandardCharsets.UTF_8);
+                    result = all ? HeadlessAnalysis.javaSubsetDiagnostics(analyzer, source) : HeadlessAnalysis.analyze(language, analyzer, source);
+                }
+                exit = Math.max(exit, print(out, result, name, language));
+                if (exit == 2) break;
+            }
+        } catch (IOException e) {
+            out.flush();
+            System.err.println("Cannot read input: " + e.getMessage());
+            exit = 2;
+        }
+        out.flush();
+        System.exit(exit);
+    }
+
+    private static int print(PrintStream out, String[] result, String name, String language) {
+        if (result == null) {
+            System.err.println(HeadlessAnalysis.unknownLanguage(language));
+            return 2;
+        }
+        if (name != null) out.println("=== " + name + " (" + result[0] + ")");
+        out.print(result[1]);
+        return result[0].equals("OK") ? 0 : 1;
+    }
+
+    // Past 2 GB the body would not fit in a String; same lines, written as they are read
+    private static int printLarge(PrintStream out, ArrayLexer.LargeTokens tokens, String name) {
+        boolean unknown = false;
+        for (long i = 0; i < tokens.size() && !unknown; i++) unknown = tokens.type(i) == ArrayLexer.TokenType.UNKNOWN;
+        if (name != null) out.println("=== " + name + " (" + (unknown ? "ERROR" : "OK") + ")");
+        for (long i = 0; i < tokens.size(); i++) out.append(tokens.token(i).toString()).append('\n');
+        return unknown ? 1 : 0;
+    }
+
+    // Touches every class a normal run loads (all three languages, the
+    // error paths, ploop's fork/join split) so a class-data archive dumped
+    // at exit covers them. Prints nothing.
+    static void train() {
+        JavaSubsetAnalyzer analyzer = new JavaSubsetAnalyzer();
+        String[] arrayLex = {"int[] myArr = {10, 20, 500};", "int[] a = {1, 2}; #"};
+        String[] javaSubset = {
+            "int[] a = {1, 2}; String s = \"x\"; // comment",
+            "int x = 2int;",
+            "int[] num nums = {1, 2};",
+            "x = (1"
+        };
+        String[] ezLang = {
+            "make list data := [5, 12, 3, 20]\nmake num limit := 3\nloop i from 0 to limit {\n"
+                + "  if (data[i] > 10) {\n    print \"big\"\n  }\n  print data[i]\n}\nprint sum(data)\n",
+            "make list d := [1, 2, 3, 4]\nploop i from 0 to 4 {\n  set d[i] := 7\n}\nfill(d, 2)\nprint max(d)\n",
+            "print \"unclosed",
+            "make num x := 99999999999"
+        };
+        for (String s : arrayLex) {
+            HeadlessAnalysis.arrayLex(s);
+            HeadlessAnalysis.arrayLex(ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8)));
+        }
+        for (String s : javaSubset) {
+            HeadlessAnalysis.javaSubset(analyzer, s);
+            HeadlessAnalysis.javaSubsetDiagnostics(analyzer, s);
+        }
+        for (String s : ezLang) HeadlessAnalysis.ezLang(s);
+    }
+}
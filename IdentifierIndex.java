@@ -0,0 +1,747 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Persistent inverted index from IDENTIFIER lexemes to (file, byte offset)
+// postings over a corpus of ArrayLex or Java-subset files, so "where is
+// this array declared / used" is a binary search per segment instead of
+// a grep and a re-lex. Files are scanned as UTF-8 bytes with the
+// language's LexerEngine (LargeInput past 2 GB); a word that is not a
+// keyword is an identifier, and it is a declaration when it follows ']'
+// or a type keyword (int[] nums, String s).
+//
+// The index is a directory:
+//   catalog     every file ever indexed (path, size, mtime, live) and the
+//               segment list. Rewritten and renamed into place by each
+//               update, so it is the commit point.
+//   segment-N   immutable, memory-mapped: postings, then the terms sorted
+//               by their UTF-8 bytes, then offset tables and a trailer.
+// An update lexes only the files that are new or whose size or mtime
+// changed, into one new segment (more if its postings outgrow
+// FLUSH_MEMORY). A changed file gets a new id and its old
+// id is marked dead, so old postings drop out of lookups without touching
+// old segments; files gone from an updated root are marked dead the same
+// way. Too many segments, or more dead files than live ones, triggers a
+// compaction that merges everything into one segment. One writer at a time.
+//
+// Postings of a term are in (file id, offset) order, one varint each:
+//   (offset delta << 2) | (declaration << 1) | newFile
+// followed by a varint file id delta when newFile is set; the offset delta
+// restarts from 0 in a new file. Most postings are one or two bytes.
+//
+// Usage: java IdentifierIndex <index-dir> update <arraylex|javasubset> <file|dir>...
+//        java IdentifierIndex <index-dir> find <name>...
+//        java IdentifierIndex <index-dir> compact
+// Exit status: 0 = OK, 1 = some name was not found, 2 = usage or I/O problem.
+public class IdentifierIndex {
+
+    public static class Posting {
+        public final String file;
+        public final long offset;         // byte offset of the identifier in the file
+        public final boolean declaration;
+
+        Posting(String file, long offset, boolean declaration) {
+            this.file = file;
+            this.offset = offset;
+            this.declaration = declaration;
+        }
+
+        @Override public String toString() {
+            return (declaration ? "declared " : "used     ") + file + " @ " + offset;
+        }
+    }
+
+    // What one update() did
+    public static class Update {
+        public int indexed, unchanged, removed;
+        public boolean compacted;
+
+        @Override public String toString() {
+            return "Indexed " + indexed + " file(s), " + unchanged + " unchanged, " + removed + " removed"
+                    + (compacted ? ", compacted" : "");
+        }
+    }
+
+    private static final int CATALOG_MAGIC = 0x4c584943; // "LXIC"
+    private static final int SEGMENT_MAGIC = 0x4c584953; // "LXIS"
+    private static final int VERSION = 1;
+    private static final int MAX_SEGMENTS = 8;
+    private static final int MAP_THRESHOLD = 1 << 20;
+    private static final long FLUSH_MEMORY = 256L << 20;
+
+    // A declaration follows ']' or one of these
+    private static final Set<String> DECLARING_TYPES = Set.of(
+            "int", "long", "double", "float", "char", "boolean", "byte", "short", "String", "void");
+
+    private final Path dir;
+    private final List<FileEntry> files = new ArrayList<>();        // by file id
+    private final Map<String, Integer> liveIds = new HashMap<>();   // path -> id of its live entry
+    private final List<Segment> segments = new ArrayList<>();       // oldest first
+    private int nextSegment;
+
+    private static class FileEntry {
+        final String path;
+        final long size;
+        final long modified;
+        boolean live;
+
+        FileEntry(String path, long size, long modified, boolean live) {
+            this.path = path;
+            this.size = size;
+            this.modified = modified;
+            this.live = live;
+        }
+    }
+
+    // An index that does not exist yet opens empty; the directory is
+    // created by the first update
+    public static IdentifierIndex open(Path dir) throws IOException {
+        IdentifierIndex index = new IdentifierIndex(dir);
+        Path catalog = dir.resolve("catalog");
+        if (!Files.exists(catalog)) return index;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(catalog)))) {
+            if (in.readInt() != CATALOG_MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not an identifier index catalog: " + catalog);
+            }
+            index.nextSegment = in.readInt();
+            int segmentCount = in.readInt();
+            for (int s = 0; s < segmentCount; s++) {
+                int number = in.readInt();
+                index.segments.add(new Segment(number, index.segmentFile(number)));
+            }
+            int fileCount = in.readInt();
+            for (int f = 0; f < fileCount; f++) {
+                FileEntry entry = new FileEntry(in.readUTF(), in.readLong(), in.readLong(), in.readBoolean());
+                index.files.add(entry);
+                if (entry.live) index.liveIds.put(entry.path, f);
+            }
+        }
+        return index;
+    }
+
+    private IdentifierIndex(Path dir) {
+        this.dir = dir;
+    }
+
+    public int liveFiles() { return liveIds.size(); }
+
+    public int segments() { return segments.size(); }
+
+    // === LOOKUP ===
+
+    // Every occurrence of the identifier in a live file, by file then offset
+    public List<Posting> find(String name) {
+        byte[] key = name.getBytes(StandardCharsets.UTF_8);
+        List<Posting> postings = new ArrayList<>();
+        for (Segment segment : segments) {
+            int term = segment.find(key);
+            if (term < 0) continue;
+            segment.postings(term, (file, offset, declaration) -> {
+                FileEntry entry = files.get(file);
+                if (entry.live) postings.add(new Posting(entry.path, offset, declaration));
+            });
+        }
+        return postings;
+    }
+
+    // === UPDATE ===
+
+    // Re-indexes the new and changed files under the roots (files or
+    // directories, walked recursively) and drops the ones that are gone
+    public Update update(String language, List<Path> roots) throws IOException {
+        String[] keywords = keywords(language);
+        LexerEngine engine = (language.equals("arraylex") ? LexerGrammars.arrayLex() : LexerGrammars.javaSubset()).compile();
+        Update update = new Update();
+
+        List<Path> normalized = new ArrayList<>();
+        List<Path> found = new ArrayList<>();
+        for (Path root : roots) {
+            Path path = root.toAbsolutePath().normalize();
+            normalized.add(path);
+            if (!Files.exists(path)) continue;
+            try (Stream<Path> walk = Files.walk(path)) {
+                found.addAll(walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList()));
+            }
+        }
+
+        SegmentBuilder builder = new SegmentBuilder(keywords);
+        Set<String> seen = new HashSet<>();
+        for (Path file : found) {
+            String key = file.toString();
+            if (!seen.add(key)) continue;
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            long modified = attributes.lastModifiedTime().toMillis();
+            Integer old = liveIds.get(key);
+            if (old != null) {
+                FileEntry entry = files.get(old);
+                if (entry.size == attributes.size() && entry.modified == modified) {
+                    update.unchanged++;
+                    continue;
+                }
+                entry.live = false;
+            }
+            int id = files.size();
+            files.add(new FileEntry(key, attributes.size(), modified, true));
+            liveIds.put(key, id);
+            builder.index(engine, id, file, attributes.size());
+            update.indexed++;
+        }
+
+        for (Path root : normalized) {
+            String prefix = root.toString(), below = prefix.endsWith(File.separator) ? prefix : prefix + File.separator;
+            for (FileEntry entry : files) {
+                if (entry.live && !seen.contains(entry.path) && (entry.path.equals(prefix) || entry.path.startsWith(below))) {
+                    entry.live = false;
+                    liveIds.remove(entry.path);
+                    update.removed++;
+                }
+            }
+        }
+
+        Files.createDirectories(dir);
+        if (builder.terms > 0) flush(builder);
+        writeCatalog();
+
+        // A merge that could pass the 2 GB segment limit is left undone
+        long bytes = 0;
+        for (Segment segment : segments) bytes += segment.buffer.capacity();
+        if ((segments.size() > MAX_SEGMENTS || files.size() - liveIds.size() > liveIds.size()) && bytes < Integer.MAX_VALUE) {
+            compact();
+            update.compacted = true;
+        }
+        return update;
+    }
+
+    // Writes what the builder holds as a new segment (not yet in the
+    // catalog) and empties it
+    private void flush(SegmentBuilder builder) throws IOException {
+        Files.createDirectories(dir);
+        int number = nextSegment++;
+        builder.write(segmentFile(number));
+        segments.add(new Segment(number, segmentFile(number)));
+        builder.clear();
+    }
+
+    private static String[] keywords(String language) {
+        switch (language) {
+            case "arraylex": return LexerGrammars.ARRAY_LEX_KEYWORDS;
+            case "javasubset": return LexerGrammars.JAVA_SUBSET_KEYWORDS;
+            default: throw new IllegalArgumentException("Unknown language '" + language + "'. Use arraylex or javasubset.");
+        }
+    }
+
+    // === COMPACTION ===
+
+    // Merges all segments into one, without the postings of dead files,
+    // and renumbers the live files densely (in their old order, so every
+    // posting list stays sorted by file id)
+    public void compact() throws IOException {
+        int[] remap = new int[files.size()];
+        List<FileEntry> live = new ArrayList<>();
+        for (int f = 0; f < files.size(); f++) {
+            FileEntry entry = files.get(f);
+            remap[f] = entry.live ? live.size() : -1;
+            if (entry.live) live.add(entry);
+        }
+
+        int number = nextSegment++;
+        SegmentWriter writer = new SegmentWriter(segmentFile(number));
+        int[] cursor = new int[segments.size()];
+        while (true) {
+            // Smallest term at any cursor; segments are sorted the same way
+            byte[] term = null;
+            for (int s = 0; s < segments.size(); s++) {
+                Segment segment = segments.get(s);
+                if (cursor[s] < segment.terms && (term == null || segment.compare(cursor[s], term) < 0)) term = segment.term(cursor[s]);
+            }
+            if (term == null) break;
+            // Older segments hold smaller file ids, so appending keeps the order
+            PostingEncoder merged = new PostingEncoder();
+            for (int s = 0; s < segments.size(); s++) {
+                Segment segment = segments.get(s);
+                if (cursor[s] == segment.terms || segment.compare(cursor[s], term) != 0) continue;
+                segment.postings(cursor[s]++, (file, offset, declaration) -> {
+                    if (remap[file] >= 0) merged.add(remap[file], offset, declaration);
+                });
+            }
+            if (merged.count > 0) writer.term(term, 0, term.length, merged);
+        }
+        writer.finish();
+
+        List<Segment> old = new ArrayList<>(segments);
+        segments.clear();
+        segments.add(new Segment(number, segmentFile(number)));
+        files.clear();
+        files.addAll(live);
+        liveIds.clear();
+        for (int f = 0; f < files.size(); f++) liveIds.put(files.get(f).path, f);
+        writeCatalog();
+        for (Segment segment : old) Files.deleteIfExists(segmentFile(segment.number));
+    }
+
+    // === CATALOG ===
+
+    private Path segmentFile(int number) {
+        return dir.resolve("segment-" + number);
+    }
+
+    private void writeCatalog() throws IOException {
+        Path temp = dir.resolve("catalog.tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(CATALOG_MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(nextSegment);
+            out.writeInt(segments.size());
+            for (Segment segment : segments) out.writeInt(segment.number);
+            out.writeInt(files.size());
+            for (FileEntry entry : files) {
+                out.writeUTF(entry.path);
+                out.writeLong(entry.size);
+                out.writeLong(entry.modified);
+                out.writeBoolean(entry.live);
+            }
+        }
+        Files.move(temp, dir.resolve("catalog"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // === POSTINGS ===
+
+    interface PostingVisitor {
+        void posting(int file, long offset, boolean declaration);
+    }
+
+    // Delta-encodes one term's postings as they arrive in (file, offset) order
+    private static class PostingEncoder {
+        byte[] bytes = new byte[8];
+        int length;
+        int count;
+        private int lastFile = -1;
+        private long lastOffset;
+
+        void add(int file, long offset, boolean declaration) {
+            boolean newFile = file != lastFile;
+            long delta = newFile ? offset : offset - lastOffset;
+            varint(delta << 2 | (declaration ? 2 : 0) | (newFile ? 1 : 0));
+            if (newFile) varint(file - Math.max(lastFile, 0));
+            lastFile = file;
+            lastOffset = offset;
+            count++;
+        }
+
+        private void varint(long v) {
+            if (length + 10 > bytes.length) bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            while ((v & ~0x7fL) != 0) {
+                bytes[length++] = (byte) (v & 0x7f | 0x80);
+                v >>>= 7;
+            }
+            bytes[length++] = (byte) v;
+        }
+    }
+
+    // === SEGMENT (read side) ===
+
+    private static class Segment {
+        final int number;
+        final MappedByteBuffer buffer;
+        final int terms;
+        private final int termBytes;      // start of the term bytes
+        private final int termStarts;     // int[terms + 1], relative to termBytes
+        private final int postingStarts;  // int[terms + 1], absolute
+        private final int counts;         // int[terms]
+
+        Segment(int number, Path file) throws IOException {
+            this.number = number;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            int end = buffer.limit();
+            if (end < 16 || buffer.getInt(end - 4) != SEGMENT_MAGIC) throw new IOException("Not an identifier index segment: " + file);
+            terms = buffer.getInt(end - 16);
+            termBytes = buffer.getInt(end - 12);
+            termStarts = termBytes + buffer.getInt(end - 8);
+            postingStarts = termStarts + 4 * (terms + 1);
+            counts = postingStarts + 4 * (terms + 1);
+        }
+
+        private int termStart(int t) { return termBytes + buffer.getInt(termStarts + 4 * t); }
+
+        byte[] term(int t) {
+            byte[] bytes = new byte[termStart(t + 1) - termStart(t)];
+            buffer.get(termStart(t), bytes);
+            return bytes;
+        }
+
+        // Unsigned byte order, the order the terms were written in
+        int compare(int t, byte[] key) {
+            int from = termStart(t), length = termStart(t + 1) - from;
+            for (int k = 0; k < length && k < key.length; k++) {
+                int c = Integer.compare(buffer.get(from + k) & 0xff, key[k] & 0xff);
+                if (c != 0) return c;
+            }
+            return Integer.compare(length, key.length);
+        }
+
+        int find(byte[] key) {
+            int lo = 0, hi = terms - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int c = compare(mid, key);
+                if (c < 0) lo = mid + 1;
+                else if (c > 0) hi = mid - 1;
+                else return mid;
+            }
+            return -1;
+        }
+
+        void postings(int t, PostingVisitor visitor) {
+            int pos = buffer.getInt(postingStarts + 4 * t);
+            int count = buffer.getInt(counts + 4 * t);
+            int file = 0;
+            long offset = 0;
+            for (int k = 0; k < count; k++) {
+                long v = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = buffer.get(pos++);
+                    v |= (long) (b & 0x7f) << shift;
+                    shift += 7;
+                } while (b < 0);
+                if ((v & 1) != 0) {
+                    int delta = 0;
+                    shift = 0;
+                    do {
+                        b = buffer.get(pos++);
+                        delta |= (b & 0x7f) << shift;
+                        shift += 7;
+                    } while (b < 0);
+                    file += delta;
+                    offset = 0;
+                }
+                offset += v >>> 2;
+                visitor.posting(file, offset, (v & 2) != 0);
+            }
+        }
+    }
+
+    // === SEGMENT (write side) ===
+
+    // Layout: [postings][term bytes][term starts][posting starts][counts]
+    // [terms, term bytes offset, term bytes length, magic]; terms must come
+    // in sorted order. Postings are streamed, the dictionary is kept until
+    // finish(). A segment holds at most 2 GB.
+    private static class SegmentWriter {
+        private final Path file;
+        private final Path temp;
+        private final DataOutputStream out;
+        private long position;
+        private byte[] termBytes = new byte[1024];
+        private int termLength;
+        private int[] termStarts = new int[64];
+        private int[] postingStarts = new int[64];
+        private int[] counts = new int[64];
+        private int terms;
+
+        SegmentWriter(Path file) throws IOException {
+            this.file = file;
+            this.temp = file.resolveSibling(file.getFileName() + ".tmp");
+            OutputStream stream = Files.newOutputStream(temp);
+            out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+        }
+
+        void term(byte[] term, int from, int length, PostingEncoder postings) throws IOException {
+            if (terms + 1 >= termStarts.length) {
+                termStarts = Arrays.copyOf(termStarts, termStarts.length * 2);
+                postingStarts = Arrays.copyOf(postingStarts, postingStarts.length * 2);
+                counts = Arrays.copyOf(counts, counts.length * 2);
+            }
+            if (termLength + length > termBytes.length) termBytes = Arrays.copyOf(termBytes, Math.max(termBytes.length * 2, termLength + length));
+            System.arraycopy(term, from, termBytes, termLength, length);
+            termStarts[terms] = termLength;
+            termLength += length;
+            postingStarts[terms] = (int) position;
+            counts[terms] = postings.count;
+            terms++;
+            out.write(postings.bytes, 0, postings.length);
+            position += postings.length;
+            if (position + termLength + 12L * (terms + 1) + 16 > Integer.MAX_VALUE) {
+                out.close();
+                Files.deleteIfExists(temp);
+                throw new IOException("Identifier index segment past 2 GB: " + file + "; index the corpus in smaller updates");
+            }
+        }
+
+        void finish() throws IOException {
+            termStarts[terms] = termLength;
+            postingStarts[terms] = (int) position;
+            out.write(termBytes, 0, termLength);
+            for (int t = 0; t <= terms; t++) out.writeInt(termStarts[t]);
+            for (int t = 0; t <= terms; t++) out.writeInt(postingStarts[t]);
+            for (int t = 0; t < terms; t++) out.writeInt(counts[t]);
+            out.writeInt(terms);
+            out.writeInt((int) position);
+            out.writeInt(termLength);
+            out.writeInt(SEGMENT_MAGIC);
+            out.close();
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    // === SEGMENT BUILDER (one update) ===
+
+    // Collects the identifiers of the files given to index(), in file id
+    // order. Terms are interned by their bytes in an open-addressing table,
+    // so no String is made per identifier; postings are delta-encoded as
+    // they arrive. Past FLUSH_MEMORY it is written out as a segment and
+    // starts over, even inside a file: a file's postings may span segments
+    // (in offset order, like everything else).
+    private class SegmentBuilder implements LexerEngine.Sink, LargeInput.Sink {
+        private final boolean[] declaringKeyword;
+
+        private byte[] pool;
+        private int poolLength;
+        private int[] termStart;
+        private int[] termLength;
+        private int[] termHash;
+        private PostingEncoder[] postings;
+        int terms;
+        private int[] table; // term + 1, 0 = empty
+        private long memory; // rough heap use of the above
+        private byte[] scratch = new byte[64];
+        private ByteBuffer reuse = ByteBuffer.allocate(1 << 16);
+
+        // Current file
+        private int file;
+        private ByteBuffer buffer;   // null for a LargeInput file
+        private LargeInput large;
+        private boolean declares;    // the last token was ']' or a type keyword
+
+        SegmentBuilder(String[] keywords) {
+            declaringKeyword = new boolean[keywords.length];
+            for (int k = 0; k < keywords.length; k++) declaringKeyword[k] = DECLARING_TYPES.contains(keywords[k]);
+            clear();
+        }
+
+        void clear() {
+            pool = new byte[1 << 16];
+            poolLength = 0;
+            termStart = new int[1024];
+            termLength = new int[1024];
+            termHash = new int[1024];
+            postings = new PostingEncoder[1024];
+            terms = 0;
+            table = new int[2048];
+            memory = 0;
+        }
+
+        void index(LexerEngine engine, int id, Path path, long size) throws IOException {
+            file = id;
+            declares = false;
+            try {
+                if (size > Integer.MAX_VALUE) {
+                    buffer = null;
+                    large = new LargeInput(path);
+                    large.scan(engine, this);
+                } else {
+                    large = null;
+                    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                        buffer = size < MAP_THRESHOLD ? read(channel, (int) size) : channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                    }
+                    engine.scan(buffer, this);
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // from a flush inside the scan
+            }
+        }
+
+        // A mapping lives until its buffer is collected, and a process gets
+        // about 65k of them; small files are read into one reused buffer
+        private ByteBuffer read(FileChannel channel, int size) throws IOException {
+            if (reuse.capacity() < size) reuse = ByteBuffer.allocate(Math.max(size, reuse.capacity() * 2));
+            reuse.clear().limit(size);
+            while (reuse.hasRemaining() && channel.read(reuse) >= 0) { }
+            return reuse.flip();
+        }
+
+        // --- LexerEngine.Sink ---
+        @Override public boolean symbol(char c, int pos, int line) { declares = c == ']'; return true; }
+        @Override public boolean operator(int op, int start, int end, int line) { declares = false; return true; }
+        @Override public boolean number(int start, int end, long value, int line) { declares = false; return true; }
+        @Override public boolean string(int start, int end, boolean closed, int line) { declares = false; return true; }
+        @Override public boolean unknown(int codePoint, int pos, int line) { declares = false; return true; }
+
+        @Override public boolean word(int start, int end, int keyword, int line) {
+            if (keyword >= 0) {
+                declares = declaringKeyword[keyword];
+                return true;
+            }
+            int length = end - start;
+            if (length > scratch.length) scratch = new byte[Math.max(length, scratch.length * 2)];
+            buffer.get(start, scratch, 0, length);
+            add(scratch, length, start, declares);
+            declares = false;
+            return true;
+        }
+
+        // --- LargeInput.Sink ---
+        @Override public boolean symbol(char c, long pos, long line) { declares = c == ']'; return true; }
+        @Override public boolean operator(int op, long start, long end, long line) { declares = false; return true; }
+        @Override public boolean number(long start, long end, long value, long line) { declares = false; return true; }
+        @Override public boolean string(long start, long end, boolean closed, long line) { declares = false; return true; }
+        @Override public boolean unknown(int codePoint, long pos, long line) { declares = false; return true; }
+
+        @Override public boolean word(long start, long end, int keyword, long line) {
+            if (keyword >= 0) {
+                declares = declaringKeyword[keyword];
+                return true;
+            }
+            byte[] bytes = large.decode(start, end).getBytes(StandardCharsets.UTF_8);
+            add(bytes, bytes.length, start, declares);
+            declares = false;
+            return true;
+        }
+
+        private void add(byte[] bytes, int length, long offset, boolean declaration) {
+            int h = 0;
+            for (int k = 0; k < length; k++) h = 31 * h + bytes[k];
+            h ^= h >>> 16;
+            int mask = table.length - 1;
+            int slot = h & mask;
+            int t;
+            while ((t = table[slot] - 1) >= 0) {
+                if (termHash[t] == h && Arrays.equals(pool, termStart[t], termStart[t] + termLength[t], bytes, 0, length)) break;
+                slot = (slot + 1) & mask;
+            }
+            if (t < 0) {
+                t = newTerm(bytes, length, h);
+                table[slot] = t + 1;
+                if (terms * 2 > table.length) rehash();
+                memory += length + 64;
+            }
+            int capacity = postings[t].bytes.length;
+            postings[t].add(file, offset, declaration);
+            memory += postings[t].bytes.length - capacity;
+            if (memory > FLUSH_MEMORY) {
+                try {
+                    flush(this);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        private int newTerm(byte[] bytes, int length, int h) {
+            if (terms == termStart.length) {
+                termStart = Arrays.copyOf(termStart, terms * 2);
+                termLength = Arrays.copyOf(termLength, terms * 2);
+                termHash = Arrays.copyOf(termHash, terms * 2);
+                postings = Arrays.copyOf(postings, terms * 2);
+            }
+            if (poolLength + length > pool.length) pool = Arrays.copyOf(pool, Math.max(pool.length * 2, poolLength + length));
+            System.arraycopy(bytes, 0, pool, poolLength, length);
+            termStart[terms] = poolLength;
+            termLength[terms] = length;
+            termHash[terms] = h;
+            postings[terms] = new PostingEncoder();
+            poolLength += length;
+            return terms++;
+        }
+
+        private void rehash() {
+            table = new int[table.length * 2];
+            int mask = table.length - 1;
+            for (int t = 0; t < terms; t++) {
+                int slot = termHash[t] & mask;
+                while (table[slot] != 0) slot = (slot + 1) & mask;
+                table[slot] = t + 1;
+            }
+        }
+
+        void write(Path file) throws IOException {
+            Integer[] order = new Integer[terms];
+            for (int t = 0; t < terms; t++) order[t] = t;
+            Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(
+                    pool, termStart[a], termStart[a] + termLength[a], pool, termStart[b], termStart[b] + termLength[b]));
+            SegmentWriter writer = new SegmentWriter(file);
+            for (int t : order) writer.term(pool, termStart[t], termLength[t], postings[t]);
+            writer.finish();
+        }
+    }
+
+    // === COMMAND LINE ===
+
+    public static void main(String[] args) {
+        if (args.length < 2 || (args[1].equals("update") && args.length < 4) || (args[1].equals("find") && args.length < 3)) {
+            usage();
+        }
+        PrintStream out = new PrintStream(System.out, false, StandardCharsets.UTF_8);
+        int exit = 0;
+        try {
+            IdentifierIndex index = open(Paths.get(args[0]));
+            switch (args[1]) {
+                case "update": {
+                    List<Path> roots = new ArrayList<>();
+                    for (int a = 3; a < args.length; a++) roots.add(Paths.get(args[a]));
+                    out.println(index.update(args[2], roots) + "; " + index.liveFiles() + " file(s) in " + index.segments() + " segment(s)");
+                    break;
+                }
+                case "find":
+                    for (int a = 2; a < args.length; a++) {
+                        List<Posting> postings = index.find(args[a]);
+                        out.println("=== " + args[a] + " (" + postings.size() + ")");
+                        for (Posting p : postings) out.println(p);
+                        if (postings.isEmpty()) exit = 1;
+                    }
+                    break;
+                case "compact":
+                    index.compact();
+                    out.println(index.liveFiles() + " file(s) in " + index.segments() + " segment(s)");
+                    break;
+                default:
+                    usage();
+            }
+        } catch (IllegalArgumentException e) {
+            out.flush();
+            System.err.println(e.getMessage());
+            exit = 2;
+        } catch (IOException e) {
+            out.flush();
+            System.err.println("Identifier index: " + e.getMessage());
+            exit = 2;
+        }
+        out.flush();
+        System.exit(exit);
+    }
+
+    private static void usage() {
+        System.err.println("Usage: java IdentifierIndex <index-dir> update <arraylex|javasubset> <file|dir>...");
+        System.err.println("       java IdentifierIndex <index-dir> find <name>...");
+        System.err.println("       java IdentifierIndex <index-dir> compact");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,597 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Java-subset analysis without any Swing: input check, lexing and the
+// validation passes behind EnhancedLexerGUI. The result holds the rows of
+// the token table and the dialogs the window should show, in order, so the
+// same analysis can run headless (AnalysisDaemon). diagnose() is the batch
+// mode that keeps going after errors and returns all of them. Holds no
+// state between calls, so one instance can be shared by many threads.
+public class JavaSubsetAnalyzer {
+
+    // Ang ipapakita sa token table at mga dialog
+    public static class Result {
+        public final List<String[]> rows = new ArrayList<>();
+        public final List<Dialog> dialogs = new ArrayList<>();
+
+        void row(String type, String value) { rows.add(new String[]{type, value}); }
+        void dialog(String title, String message, boolean warning) { dialogs.add(new Dialog(title, message, warning)); }
+    }
+
+    public static class Dialog {
+        public final String title;
+        public final String message;
+        public final boolean warning; // false = error
+
+        Dialog(String title, String message, boolean warning) {
+            this.title = title;
+            this.message = message;
+            this.warning = warning;
+        }
+    }
+
+    // Isang problema sa collect-all mode (diagnose): title gaya ng dialog,
+    // rule = validation pass o lexer guard, position = char offset sa input
+    public static class Diagnostic {
+        public final String title;
+        public final String rule;
+        public final String message;
+        public final int position;
+        public int line;   // 1-based, nilalagay ng diagnose()
+        public int column; // 1-based, in chars
+
+        Diagnostic(String title, String rule, String message, int position) {
+            this.title = title;
+            this.rule = rule;
+            this.message = message;
+            this.position = position;
+        }
+
+        @Override
+        public String toString() {
+            return "Line " + line + ", col " + column + ": " + message;
+        }
+    }
+
+    // Token class para sa storage ng Type at Value
+    private static class Token {
+        String type;
+        String value;
+        int position;
+
+        Token(String type, String value, int position) {
+            this.type = type;
+            this.value = value;
+            this.position = position;
+        }
+    }
+
+    // === 1. INPUT VALIDATION (Structure check) ===
+    // 'all' = null: ibabalik ang unang error. Kung hindi, idinadagdag doon
+    // ang bawat error (ang sobrang pansara ay nilalaktawan) at null ang balik.
+    private String validateInput(String input, List<Diagnostic> all) {
+        if (input == null || input.trim().isEmpty()) {
+            return structureError(all, "Error: Input cannot be empty", 0);
+        }
+
+        int parenCount = 0, bracketCount = 0, braceCount = 0;
+        // Kung saan nagsimula ang pinakaunang hindi pa nasasarang ( [ {
+        int parenOpen = 0, bracketOpen = 0, braceOpen = 0;
+        boolean inString = false;
+        
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            
+            if (c == '"' && (i == 0 || input.charAt(i-1) != '\\')) {
+                inString = !inString; 
+                continue;
+            }
+            
+            if (!inString) {
+                if (c == '(' && parenCount++ == 0) parenOpen = i;
+                if (c == ')') parenCount--;
+                if (c == '[' && bracketCount++ == 0) bracketOpen = i;
+                if (c == ']') bracketCount--;
+                if (c == '{' && braceCount++ == 0) braceOpen = i;
+                if (c == '}') braceCount--;
+            }
+
+            String error = null;
+            if (parenCount < 0) error = "Error: Mismatched parentheses - closing ) without opening (";
+            if (bracketCount < 0) error = "Error: Mismatched brackets - closing ] without opening [";
+            if (braceCount < 0) error = "Error: Mismatched braces - closing } without opening {";
+            if (error != null) {
+                if (all == null) return error;
+                structureError(all, error, i);
+                parenCount = Math.max(parenCount, 0);
+                bracketCount = Math.max(bracketCount, 0);
+                braceCount = Math.max(braceCount, 0);
+            }
+        }
+
+        String error = null;
+        if (parenCount != 0 && (error = structureError(all, "Error: Unbalanced parentheses ( )", parenOpen)) != null) return error;
+        if (bracketCount != 0 && (error = structureError(all, "Error: Unbalanced square brackets [ ]", bracketOpen)) != null) return error;
+        if (braceCount != 0 && (error = structureError(all, "Error: Unbalanced curly braces { }", braceOpen)) != null) return error;
+
+        String trimmed = input.trim();
+        if (!trimmed.endsWith(";") && !trimmed.endsWith("}")) {
+             return structureError(all, "Error: Code snippet must generally end with a semicolon ; or brace }", input.indexOf(trimmed) + trimmed.length());
+        }
+
+        return null;
+    }
+
+    private static String structureError(List<Diagnostic> all, String message, int position) {
+        if (all == null) return message;
+        all.add(new Diagnostic("Syntax Error", "validateInput", message, position));
+        return null;
+    }
+
+    // === 2. SEMANTIC VALIDATION (Logic checking) ===
+    // Bawat pass ay tumitingin lang sa tokens [from, to); sa normal mode buong
+    // listahan, sa diagnose() isang statement lang. 'record' = may sariling
+    // JFR ValidationEvent ang bawat pass.
+    private Diagnostic validateTokenSequence(ArrayList<Token> tokens, int from, int to, boolean record) {
+        
+        // === NEW CHECK: Strict Adjacency (Dito natin mahuhuli ang "num nums") ===
+        AnalysisEvents.ValidationEvent event = record ? AnalysisEvents.startValidation() : null;
+        Diagnostic adjError = validateAdjacentTokens(tokens, from, to);
+        if (record) endPass(event, "validateAdjacentTokens", tokens.size(), adjError);
+        if (adjError != null) return adjError;
+
+        // Validate variable declaration
+        event = record ? AnalysisEvents.startValidation() : null;
+        Diagnostic declError = validateDeclarations(tokens, from, to);
+        if (record) endPass(event, "validateDeclarations", tokens.size(), declError);
+        if (declError != null) return declError;
+
+        // Validate array syntax
+        event = record ? AnalysisEvents.startValidation() : null;
+        Diagnostic arrayError = validateArraySyntax(tokens, from, to);
+        if (record) endPass(event, "validateArraySyntax", tokens.size(), arrayError);
+        if (arrayError != null) return arrayError;
+
+        // Validate identifier naming rules
+        event = record ? AnalysisEvents.startValidation() : null;
+        Diagnostic identError = validateIdentifiers(tokens, from, to);
+        if (record) endPass(event, "validateIdentifiers", tokens.size(), identError);
+        if (identError != null) return identError;
+
+        // Validate operators
+        event = record ? AnalysisEvents.startValidation() : null;
+        Diagnostic opError = validateOperators(tokens, from, to);
+        if (record) endPass(event, "validateOperators", tokens.size(), opError);
+        if (opError != null) return opError;
+
+        return null;
+    }
+
+    private static Diagnostic semantic(String rule, String message, Token at) {
+        return new Diagnostic("Semantic Error", rule, message, at.position);
+    }
+
+    // === NEW METHOD: Validate Adjacent Tokens (Neighbor Check) ===
+    private Diagnostic validateAdjacentTokens(ArrayList<Token> tokens, int from, int to) {
+        for (int i = from; i < Math.min(to, tokens.size() - 1); i++) {
+            Token current = tokens.get(i);
+            Token next = tokens.get(i + 1);
+
+            // CASE 1: Identifier followed by Identifier (e.g., "num nums")
+            // Ito yung fix sa "int[] num nums" -> Bawal magkadikit ang dalawang variable name
+            if (current.type.equals("IDENTIFIER") && next.type.equals("IDENTIFIER")) {
+                return semantic("validateAdjacentTokens", "Error: Unexpected identifier '" + next.value + "' after '" + current.value + "'. Missing operator?", next);
+            }
+
+            // CASE 2: Identifier followed by Number/String (e.g., "x 5")
+            // Bawal ang "x 5", dapat "x = 5"
+            if (current.type.equals("IDENTIFIER") && 
+               (next.type.equals("NUMBER") || next.type.equals("STRING_LITERAL"))) {
+                return semantic("validateAdjacentTokens", "Error: Missing operator between '" + current.value + "' and value '" + next.value + "'", next);
+            }
+
+            // CASE 3: Identifier followed by Keyword (e.g., "x int")
+            // Bawal ang "myVar int" -> exception lang ay 'instanceof' pero di natin covered yun dito
+            if (current.type.equals("IDENTIFIER") && next.type.equals("KEYWORD")) {
+                return semantic("validateAdjacentTokens", "Error: Unexpected keyword '" + next.value + "' after identifier '" + current.value + "'", next);
+            }
+
+            // CASE 4: Double Type Declaration (e.g., "int boolean")
+            // Bawal ang dalawang type na magkatabi
+            if (current.type.equals("KEYWORD") && next.type.equals("KEYWORD")) {
+                if (isTypeKeyword(current.value) && isTypeKeyword(next.value)) {
+                    return semantic("validateAdjacentTokens", "Error: Invalid syntax. Cannot have two types '" + current.value + " " + next.value + "' together.", next);
+                }
+            }
+        }
+        return null;
+    }
+
+    // Validation para sa Variable Declarations
+    private Diagnostic validateDeclarations(ArrayList<Token> tokens, int from, int to) {
+        for (int i = from; i < to; i++) {
+            Token t = tokens.get(i);
+            
+            if (t.type.equals("KEYWORD") && isTypeKeyword(t.value)) {
+                if (i + 1 >= tokens.size()) {
+                    return semantic("validateDeclarations", "Error: Incomplete declaration after '" + t.value + "'", t);
+                }
+                Token next = tokens.get(i + 1);
+                
+                // Array declaration (e.g., int[])
+                if (next.type.equals("L_BRACKET")) {
+                    if (i + 2 >= tokens.size() || !tokens.get(i + 2).type.equals("R_BRACKET")) {
+                        return semantic("validateDeclarations", "Error: Array brackets must be closed '[]' after type '" + t.value + "'", next);
+                    }
+                    if (i + 3 >= tokens.size() || !tokens.get(i + 3).type.equals("IDENTIFIER")) {
+                        return semantic("validateDeclarations", "Error: Expected variable name after '" + t.value + "[]'", tokens.get(Math.min(i + 3, tokens.size() - 1)));
+                    }
+                } 
+                // Regular declaration check
+                else if (!next.type.equals("IDENTIFIER")) {
+                    return semantic("validateDeclarations", "Error: Expected variable name after type '" + t.value + "', found '" + next.value + "'", next);
+                }
+            }
+        }
+        return null;
+    }
+
+    // Validation para sa Array values
+    private Diagnostic validateArraySyntax(ArrayList<Token> tokens, int from, int to) {
+        for (int i = from; i < to; i++) {
+            Token t = tokens.get(i);
+            if (t.type.equals("L_BRACE")) {
+                int j = i + 1;
+                boolean expectingValue = true;
+                boolean expectingComma = false;
+
+                while (j < to && !tokens.get(j).type.equals("R_BRACE")) {
+                    Token current = tokens.get(j);
+
+                    if (expectingValue) {
+                        if (!current.type.equals("NUMBER") && 
+                            !current.type.equals("IDENTIFIER") &&
+                            !current.type.equals("STRING_LITERAL")) {
+                            return semantic("validateArraySyntax", "Error: Expected a value in array, found " + 
+                                   current.type + " '" + current.value + "'", current);
+                        }
+                        expectingValue = false;
+                        expectingComma = true;
+                    } else if (expectingComma) {
+                        if (current.type.equals("COMMA")) {
+                            expectingValue = true;
+                            expectingComma = false;
+                        } else {
+                            return semantic("validateArraySyntax", "Error: Missing comma between array elements.", current);
+                        }
+                    }
+                    j++;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Validation para sa pangalan ng variables
+    private Diagnostic validateIdentifiers(ArrayList<Token> tokens, int from, int to) {
+        Set<String> reservedWords = getReservedWords();
+        for (Token t : tokens.subList(from, to)) {
+            if (t.type.equals("IDENTIFIER")) {
+                String name = t.value;
+                if (reservedWords.contains(name.toLowerCase())) {
+                    return semantic("validateIdentifiers", "Error: '" + name + "' is a reserved keyword", t);
+                }
+                if (!name.matches("[a-zA-Z_$][a-zA-Z0-9_$]*")) {
+                    return semantic("validateIdentifiers", "Error: Invalid identifier format '" + name + "'", t);
+                }
+            }
+        }
+        return null;
+    }
+
+    // Validation para sa Operators
+    private Diagnostic validateOperators(ArrayList<Token> tokens, int from, int to) {
+        for (int i = from; i < to; i++) {
+            Token t = tokens.get(i);
+            if (i == 0 && isOperator(t.type) && !isUnaryOperator(t.type)) {
+                return semantic("validateOperators", "Error: Statement cannot start with operator '" + t.value + "'", t);
+            }
+            if (i < tokens.size() - 1 && isOperator(t.type)) {
+                Token next = tokens.get(i + 1);
+                if (isOperator(next.type) && !isValidOperatorSequence(t.value, next.value)) {
+                    return semantic("validateOperators", "Error: Invalid operator sequence '" + t.value + next.value + "'", next);
+                }
+            }
+        }
+        return null;
+    }
+
+    // === HELPER METHODS ===
+    private boolean isTypeKeyword(String word) {
+        String[] types = {"int", "double", "float", "char", "boolean", "byte", 
+                         "short", "long", "String", "void"};
+        for (String type : types) if (word.equals(type)) return true;
+        return false;
+    }
+
+    private boolean isOperator(String type) {
+        return type.contains("ASSIGN") || type.contains("PLUS") || type.contains("MINUS") ||
+               type.contains("MULTIPLY") || type.contains("DIVIDE") || type.contains("MODULO") ||
+               type.contains("EQUALS") || type.contains("LESS") || type.contains("GREATER") ||
+               type.contains("LOGICAL") || type.contains("BITWISE") || type.contains("SHIFT");
+    }
+
+    private boolean isUnaryOperator(String type) {
+        return type.equals("LOGICAL_NOT") || type.equals("MINUS") || type.equals("PLUS");
+    }
+
+    private boolean isValidOperatorSequence(String op1, String op2) {
+        return (op2.equals("!") || op2.equals("-") || op2.equals("+"));
+    }
+
+    // Isang beses lang binubuo; tinatawag ito sa bawat word at bawat statement
+    private static final Set<String> RESERVED_WORDS = new HashSet<>(List.of(LexerGrammars.JAVA_SUBSET_KEYWORDS));
+
+    private Set<String> getReservedWords() {
+        return RESERVED_WORDS;
+    }
+
+    // === 3. CORE LEXER ENGINE ===
+    // Grammar: LexerGrammars.javaSubset(), scanned by the generated JavaSubsetScanner
+    public Result analyze(String input) {
+        Result result = new Result();
+
+        long startNanos = System.nanoTime();
+        AnalysisEvents.ValidationEvent inputEvent = AnalysisEvents.startValidation();
+        String validationError = validateInput(input, null);
+        endPass(inputEvent, "validateInput", 0, validationError);
+        if (validationError != null) {
+            result.row("VALIDATION ERROR", validationError);
+            result.dialog("Syntax Error", validationError, true);
+        }
+
+        // JFR event at JMX timing para sa lexing
+        AnalysisEvents.LexEvent lexEvent = AnalysisEvents.startLex();
+        String[] lexicalError = new String[2]; // {table row, dialog message}
+        ArrayList<Token> tokens = lex(input, result, lexicalError, null, null);
+
+        if (lexicalError[0] != null) {
+            result.row("LEXICAL ERROR", lexicalError[0]);
+            endLex(lexEvent, startNanos, input, tokens, "LEXICAL ERROR");
+            result.dialog("Invalid Token", lexicalError[1], false);
+            return result;
+        }
+
+        // Semantic Check
+        Diagnostic semanticError = validateTokenSequence(tokens, 0, tokens.size(), true);
+        endLex(lexEvent, startNanos, input, tokens, semanticError != null ? "SEMANTIC ERROR" : null);
+        if (semanticError != null) {
+            result.row("SEMANTIC ERROR", semanticError.message);
+            result.dialog("Semantic Error", semanticError.message, false);
+            return result; // <--- FIX: STOP EXECUTION HERE IF ERROR FOUND
+        }
+
+        for (Token token : tokens) {
+            result.row(token.type, token.value);
+        }
+        return result;
+    }
+
+    // Tokens ng input. result = kung saan ilalagay ang UNKNOWN rows (pwedeng
+    // null). all = null: hihinto sa unang lexical error at ilalagay ito sa
+    // lexicalError {row, dialog}; kung hindi, itatala ang bawat isa sa 'all'
+    // at lalaktawan ang tokens hanggang sa susunod na ; o }. Kung may 'lines',
+    // doon ilalagay ang simula ng bawat linya habang nag-i-scan.
+    private ArrayList<Token> lex(String input, Result result, String[] lexicalError, List<Diagnostic> all, LineIndex lines) {
+        ArrayList<Token> tokens = new ArrayList<>();
+
+        JavaSubsetScanner.scan(input, new LexerEngine.Sink() {
+            // Sa diagnose(): true habang nilalaktawan ang natitira sa statement na may lexical error
+            boolean skipping;
+
+            @Override public void newline(int pos) {
+                if (lines != null) lines.newline(pos);
+            }
+
+            // STRING LITERALS (kasama ang quotes)
+            @Override public boolean string(int start, int end, boolean closed, int line) {
+                if (skipping) return true;
+                tokens.add(new Token("STRING_LITERAL", input.substring(start, end), start));
+                return true;
+            }
+
+            // SINGLE CHAR SYMBOLS
+            @Override public boolean symbol(char c, int pos, int line) {
+                if (skipping) {
+                    // Resync: dito na magsisimula ulit ang susunod na statement
+                    skipping = c != ';' && c != '}';
+                    return true;
+                }
+                tokens.add(new Token(getSymbolType(c), Character.toString(c), pos));
+                return true;
+            }
+
+            // NUMBERS (computed by the scanner while it reads the digits)
+            @Override public boolean number(int start, int end, long value, int line) {
+                if (skipping) return true;
+                return numberToken(start, end, value >= 0);
+            }
+
+            @Override public boolean decimal(int start, int end, double value, int line) {
+                if (skipping) return true;
+                return numberToken(start, end, true);
+            }
+
+            // Guard: "1.2.3"
+            @Override public boolean malformedNumber(int start, int end, int line) {
+                if (skipping) return true;
+                String number = input.substring(start, end);
+                return lexicalError("numberFormat", start, "Invalid Number format: '" + number + "'",
+                        "Lexical Error: A number can only have one decimal point (found '" + number + "')");
+            }
+
+            // inRange = false: integer past int range (value < 0 galing sa scanner)
+            private boolean numberToken(int start, int end, boolean inRange) {
+                String number = input.substring(start, end);
+                // Guard: Check for "2int"
+                int next = end < input.length() ? input.codePointAt(end) : -1;
+                if (next >= 0 && (Character.isLetter(next) || next == '_')) {
+                    return lexicalError("identifierStart", start, "Invalid Identifier starting with digit: " + number + Character.toString(next) + "...",
+                            "Lexical Error: Identifiers cannot start with numbers (found '" + number + Character.toString(next) + "...')");
+                }
+                // Guard: "99999999999"
+                if (!inRange) {
+                    return lexicalError("integerRange", start, "Integer out of range: " + number,
+                            "Lexical Error: Integer literal is larger than 2147483647 (found '" + number + "')");
+                }
+                tokens.add(new Token("NUMBER", number, start));
+                return true;
+            }
+
+            // OPERATORS (pinakamahabang tugma na, galing sa trie ng scanner)
+            @Override public boolean operator(int op, int start, int end, int line) {
+                if (skipping) return true;
+                tokens.add(new Token(OPERATOR_TYPES[op], LexerGrammars.JAVA_SUBSET_OPERATORS[op], start));
+                return true;
+            }
+
+            // IDENTIFIERS AND KEYWORDS
+            @Override public boolean word(int start, int end, int keyword, int line) {
+                if (skipping) return true;
+                String word = input.substring(start, end);
+
+                // Guard: Check for "int2"
+                for (String k : getReservedWords()) {
+                    if (word.startsWith(k) && word.length() > k.length() && Character.isDigit(word.codePointAt(k.length()))) {
+                        return lexicalError("keywordDigits", start, "Invalid Keyword format: '" + word + "'",
+                                "Lexical Error: Keywords cannot be followed by numbers (Found: '" + word + "')");
+                    }
+                }
+
+                tokens.add(new Token(keyword >= 0 ? "KEYWORD" : "IDENTIFIER", word, start));
+                return true;
+            }
+
+            // UNKNOWN
+            @Override public boolean unknown(int codePoint, int pos, int line) {
+                if (result != null) result.row("UNKNOWN", Character.toString(codePoint));
+                return true;
+            }
+
+            // Normal mode: itigil ang scan. diagnose(): itala at mag-resync sa ; o }
+            private boolean lexicalError(String rule, int position, String row, String dialog) {
+                if (all == null) {
+                    lexicalError[0] = row;
+                    lexicalError[1] = dialog;
+                    return false;
+                }
+                all.add(new Diagnostic("Invalid Token", rule, dialog, position));
+                // Alisin ang mga token ng sirang statement (hanggang sa huling ; o }),
+                // kung hindi ay dudugtong sila sa susunod na statement sa diagnose()
+                int keep = tokens.size();
+                while (keep > 0 && !tokens.get(keep - 1).type.equals("SEMICOLON") && !tokens.get(keep - 1).type.equals("R_BRACE")) keep--;
+                tokens.subList(keep, tokens.size()).clear();
+                skipping = true;
+                return true;
+            }
+        });
+        return tokens;
+    }
+
+    // === 4. COLLECT-ALL MODE (batch, walang dialog) ===
+    // Hindi humihinto sa unang error: lahat ng structure error, bawat lexical
+    // error (resync sa ; o }), at ang unang semantic error ng bawat statement
+    // (mga token hanggang ; o }, kaya isang beses lang dinadaanan ang tokens).
+    // Naka-sort ayon sa position, may line at column na (galing sa LineIndex).
+    public List<Diagnostic> diagnose(String input) {
+        List<Diagnostic> all = new ArrayList<>();
+
+        long startNanos = System.nanoTime();
+        AnalysisEvents.ValidationEvent inputEvent = AnalysisEvents.startValidation();
+        validateInput(input, all);
+        endPass(inputEvent, "validateInput", 0, all.isEmpty() ? null : all.get(0).message);
+
+        AnalysisEvents.LexEvent lexEvent = AnalysisEvents.startLex();
+        int beforeLex = all.size();
+        LineIndex lines = new LineIndex();
+        ArrayList<Token> tokens = lex(input, null, null, all, lines);
+        int lexical = all.size() - beforeLex;
+
+        AnalysisEvents.ValidationEvent event = AnalysisEvents.startValidation();
+        String firstSemantic = null;
+        int from = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            String type = tokens.get(i).type;
+            if (i < tokens.size() - 1 && !type.equals("SEMICOLON") && !type.equals("R_BRACE")) continue;
+            Diagnostic d = validateTokenSequence(tokens, from, i + 1, false);
+            if (d != null) {
+                all.add(d);
+                AnalysisMetrics.get().validationError(d.rule);
+                if (firstSemantic == null) firstSemantic = d.message;
+            }
+            from = i + 1;
+        }
+        AnalysisEvents.endValidation(event, "diagnose", tokens.size(), firstSemantic);
+        endLex(lexEvent, startNanos, input, tokens, lexical > 0 ? "LEXICAL ERROR" : firstSemantic != null ? "SEMANTIC ERROR" : null);
+
+        // Binary search sa line index na binuo ng scan, walang bilang ulit
+        for (Diagnostic d : all) {
+            d.line = lines.line(d.position);
+            d.column = lines.column(d.position);
+        }
+        all.sort(Comparator.comparingInt(d -> d.position));
+        return all;
+    }
+
+    // Tinatapos ang JFR event ng isang validation pass at binibilang ang error para sa JMX
+    private void endPass(AnalysisEvents.ValidationEvent event, String rule, int tokenCount, Diagnostic error) {
+        endPass(event, rule, tokenCount, error != null ? error.message : null);
+    }
+
+    private void endPass(AnalysisEvents.ValidationEvent event, String rule, int tokenCount, String error) {
+        AnalysisEvents.endValidation(event, rule, tokenCount, error);
+        if (error != null) AnalysisMetrics.get().validationError(rule);
+    }
+
+    private void endLex(AnalysisEvents.LexEvent event, long startNanos, String input, ArrayList<Token> tokens, String errorKind) {
+        AnalysisEvents.endLex(event, "JavaSubset", input, tokens.size(), errorKind);
+        AnalysisMetrics metrics = AnalysisMetrics.get();
+        metrics.lexed(AnalysisEvents.utf8Length(input));
+        Map<String, Long> counts = new HashMap<>();
+        for (Token t : tokens) counts.merge(t.type, 1L, Long::sum);
+        for (Map.Entry<String, Long> e : counts.entrySet()) metrics.tokens("JavaSubset", e.getKey(), e.getValue());
+        metrics.run("JavaSubset", System.nanoTime() - startNanos);
+    }
+
+    static String getSymbolType(char c) {
+        switch (c) {
+            case '[': return "L_BRACKET";
+            case ']': return "R_BRACKET";
+            case '{': return "L_BRACE";
+            case '}': return "R_BRACE";
+            case '(': return "L_PAREN";
+            case ')': return "R_PAREN";
+            case ',': return "COMMA";
+            case ';': return "SEMICOLON";
+            case '.': return "DOT";
+            default: return "SYMBOL";
+        }
+    }
+
+    // Token type ng bawat LexerGrammars.JAVA_SUBSET_OPERATORS, pareho ang ayos
+    static final String[] OPERATOR_TYPES = {
+        "ASSIGN", "EQUALS", "LOGICAL_NOT", "NOT_EQUALS",
+        "PLUS", "INCREMENT", "ADD_ASSIGN", "MINUS", "DECREMENT", "SUB_ASSIGN", "ARROW",
+        "MULTIPLY", "MUL_ASSIGN", "DIVIDE", "DIV_ASSIGN", "MODULO", "MOD_ASSIGN",
+        "LESS_THAN", "LESS_EQUAL", "SHIFT_LEFT", "SHIFT_LEFT_ASSIGN",
+        "GREATER_THAN", "GREATER_EQUAL", "SHIFT_RIGHT", "SHIFT_RIGHT_ASSIGN",
+        "UNSIGNED_SHIFT_RIGHT", "UNSIGNED_SHIFT_RIGHT_ASSIGN",
+        "BITWISE_AND", "LOGICAL_AND", "AND_ASSIGN", "BITWISE_OR", "LOGICAL_OR", "OR_ASSIGN",
+        "COLON", "METHOD_REF"
+    };
+}
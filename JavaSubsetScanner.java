@@ -0,0 +1,484 @@
+// GENERATED by ScannerGenerator from LexerGrammars.javaSubset() - do not edit.
+// Regenerate with: java ScannerGenerator .
+public final class JavaSubsetScanner {
+
+    private JavaSubsetScanner() {}
+
+    // ASCII whitespace, bit c set for char c (all of it is below 64)
+    private static final long SPACE_BITS = 0x1f0003e00L;
+
+    public static boolean scan(String input, LexerEngine.Sink sink) {
+        int n = input.length();
+        int i = 0;
+        int line = 1;
+
+        while (i < n) {
+            char c = input.charAt(i);
+
+            if (c == '/' && input.startsWith("//", i)) {
+                i += 2;
+                while (i < n && input.charAt(i) != '\n' && input.charAt(i) != '\r') i++;
+                continue;
+            }
+
+            switch (c) {
+                case '\t': case '\n': case 11: case 12: case '\r': case 28: case 29: case 30:
+                case 31: case ' ':
+                    if (c == '\n') {
+                        line++;
+                        sink.newline(i);
+                    }
+                    i++;
+                    while (i < n && (c = input.charAt(i)) < 64 && (SPACE_BITS >>> c & 1) != 0) {
+                        if (c == '\n') {
+                            line++;
+                            sink.newline(i);
+                        }
+                        i++;
+                    }
+                    continue;
+                case '"': {
+                    int start = i++;
+                    boolean closed = false;
+                    while (i < n) {
+                        char s = input.charAt(i++);
+                        if (s == '"' && input.charAt(i - 2) != '\\') { closed = true; break; }
+                        if (s == '\n') {
+                            line++;
+                            sink.newline(i - 1);
+                        }
+                    }
+                    if (!sink.string(start, i, closed, line)) return false;
+                    continue;
+                }
+                case '(': case ')': case ',': case '.': case ';': case '[': case ']': case '{':
+                case '}':
+                    if (!sink.symbol(c, i, line)) return false;
+                    i++;
+                    continue;
+                case '!':
+                    if (i + 1 < n && input.charAt(i + 1) == '=') {
+                        if (!sink.operator(3, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (!sink.operator(2, i, i + 1, line)) return false;
+                    i++;
+                    continue;
+                case '%':
+                    if (i + 1 < n && input.charAt(i + 1) == '=') {
+                        if (!sink.operator(16, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (!sink.operator(15, i, i + 1, line)) return false;
+                    i++;
+                    continue;
+                case '&':
+                    if (i + 1 < n && input.charAt(i + 1) == '&') {
+                        if (!sink.operator(28, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (i + 1 < n && input.charAt(i + 1) == '=') {
+                        if (!sink.operator(29, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (!sink.operator(27, i, i + 1, line)) return false;
+                    i++;
+                    continue;
+                case '*':
+                    if (i + 1 < n && input.charAt(i + 1) == '=') {
+                        if (!sink.operator(12, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (!sink.operator(11, i, i + 1, line)) return false;
+                    i++;
+                    continue;
+                case '+':
+                    if (i + 1 < n && input.charAt(i + 1) == '+') {
+                        if (!sink.operator(5, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (i + 1 < n && input.charAt(i + 1) == '=') {
+                        if (!sink.operator(6, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (!sink.operator(4, i, i + 1, line)) return false;
+                    i++;
+                    continue;
+                case '-':
+                    if (i + 1 < n && input.charAt(i + 1) == '-') {
+                        if (!sink.operator(8, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (i + 1 < n && input.charAt(i + 1) == '=') {
+                        if (!sink.operator(9, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (i + 1 < n && input.charAt(i + 1) == '>') {
+                        if (!sink.operator(10, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (!sink.operator(7, i, i + 1, line)) return false;
+                    i++;
+                    continue;
+                case '/':
+                    if (i + 1 < n && input.charAt(i + 1) == '=') {
+                        if (!sink.operator(14, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (!sink.operator(13, i, i + 1, line)) return false;
+                    i++;
+                    continue;
+                case ':':
+                    if (i + 1 < n && input.charAt(i + 1) == ':') {
+                        if (!sink.operator(34, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (!sink.operator(33, i, i + 1, line)) return false;
+                    i++;
+                    continue;
+                case '<':
+                    if (i + 1 < n && input.charAt(i + 1) == '<') {
+                        if (i + 2 < n && input.charAt(i + 2) == '=') {
+                            if (!sink.operator(20, i, i + 3, line)) return false;
+                            i += 3;
+                            continue;
+                        }
+                        if (!sink.operator(19, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (i + 1 < n && input.charAt(i + 1) == '=') {
+                        if (!sink.operator(18, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (!sink.operator(17, i, i + 1, line)) return false;
+                    i++;
+                    continue;
+                case '=':
+                    if (i + 1 < n && input.charAt(i + 1) == '=') {
+                        if (!sink.operator(1, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (!sink.operator(0, i, i + 1, line)) return false;
+                    i++;
+                    continue;
+                case '>':
+                    if (i + 1 < n && input.charAt(i + 1) == '=') {
+                        if (!sink.operator(22, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (i + 1 < n && input.charAt(i + 1) == '>') {
+                        if (i + 2 < n && input.charAt(i + 2) == '=') {
+                            if (!sink.operator(24, i, i + 3, line)) return false;
+                            i += 3;
+                            continue;
+                        }
+                        if (i + 2 < n && input.charAt(i + 2) == '>') {
+                            if (i + 3 < n && input.charAt(i + 3) == '=') {
+                                if (!sink.operator(26, i, i + 4, line)) return false;
+                                i += 4;
+                                continue;
+                            }
+                            if (!sink.operator(25, i, i + 3, line)) return false;
+                            i += 3;
+                            continue;
+                        }
+                        if (!sink.operator(23, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (!sink.operator(21, i, i + 1, line)) return false;
+                    i++;
+                    continue;
+                case '|':
+                    if (i + 1 < n && input.charAt(i + 1) == '=') {
+                        if (!sink.operator(32, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (i + 1 < n && input.charAt(i + 1) == '|') {
+                        if (!sink.operator(31, i, i + 2, line)) return false;
+                        i += 2;
+                        continue;
+                    }
+                    if (!sink.operator(30, i, i + 1, line)) return false;
+                    i++;
+                    continue;
+                case '0': case '1': case '2': case '3': case '4': case '5': case '6': case '7':
+                case '8': case '9':
+                    i = number(input, i, line, sink);
+                    if (i < 0) return false;
+                    continue;
+                case 'A': case 'B': case 'C': case 'D': case 'E': case 'F': case 'G': case 'H':
+                case 'I': case 'J': case 'K': case 'L': case 'M': case 'N': case 'O': case 'P':
+                case 'Q': case 'R': case 'S': case 'T': case 'U': case 'V': case 'W': case 'X':
+                case 'Y': case 'Z': case '_': case 'a': case 'b': case 'c': case 'd': case 'e':
+                case 'f': case 'g': case 'h': case 'i': case 'j': case 'k': case 'l': case 'm':
+                case 'n': case 'o': case 'p': case 'q': case 'r': case 's': case 't': case 'u':
+                case 'v': case 'w': case 'x': case 'y': case 'z':
+                    i = word(input, i, line, sink);
+                    if (i < 0) return false;
+                    continue;
+                default:
+                    if (c >= 128) {
+                        // Code-point path, so a surrogate pair is classified as one character
+                        int cp = input.codePointAt(i);
+                        if (Character.isWhitespace(cp)) { i += Character.charCount(cp); continue; }
+                        if (Character.isDigit(cp)) { i = number(input, i, line, sink); if (i < 0) return false; continue; }
+                        if (Character.isLetter(cp)) { i = word(input, i, line, sink); if (i < 0) return false; continue; }
+                        if (!sink.unknown(cp, i, line)) return false;
+                        i += Character.charCount(cp);
+                        continue;
+                    }
+                    if (!sink.unknown(c, i, line)) return false;
+                    i++;
+                    continue;
+            }
+        }
+        return true;
+    }
+
+    // Integers go to number() (value -1 if it does not fit in an int), numbers
+    // with one '.' to decimal(), with more than one to malformedNumber()
+    private static int number(String input, int i, int line, LexerEngine.Sink sink) {
+        int n = input.length();
+        int start = i;
+        long value = 0;
+        long mantissa = 0;
+        int scale = 0;
+        int dots = 0;
+        while (i < n) {
+            char d = input.charAt(i);
+            int digit;
+            int len = 1;
+            if (d >= '0' && d <= '9') {
+                digit = d - '0';
+            } else if (d == '.') {
+                dots++;
+                i++;
+                continue;
+            } else if (d < 128) {
+                break;
+            } else {
+                int cp = input.codePointAt(i);
+                if (!Character.isDigit(cp)) break;
+                digit = Character.digit(cp, 10);
+                len = Character.charCount(cp);
+            }
+            if (dots == 0 && value >= 0) {
+                value = value * 10 + digit;
+                if (value > Integer.MAX_VALUE) value = -1;
+            }
+            mantissa = mantissa >= 0 && mantissa <= (LexerEngine.EXACT - digit) / 10 ? mantissa * 10 + digit : -1;
+            if (dots > 0) scale++;
+            i += len;
+        }
+        if (dots > 1) return sink.malformedNumber(start, i, line) ? i : -1;
+        if (dots == 1) {
+            double decimal = LexerEngine.decimalValue(mantissa, scale);
+            if (Double.isNaN(decimal)) decimal = LexerEngine.parseDecimal(input.substring(start, i));
+            return sink.decimal(start, i, decimal, line) ? i : -1;
+        }
+        return sink.number(start, i, value, line) ? i : -1;
+    }
+
+    private static final long WORD_PART_LO = 0x3ff000000000000L;
+    private static final long WORD_PART_HI = 0x7fffffe87fffffeL;
+
+    private static int word(String input, int i, int line, LexerEngine.Sink sink) {
+        int n = input.length();
+        int start = i;
+        while (i < n) {
+            char c = input.charAt(i);
+            if (c < 128) {
+                // The shift distance is masked to 6 bits, so c selects its bit in either half
+                if (((c < 64 ? WORD_PART_LO : WORD_PART_HI) >>> c & 1) == 0) break;
+                i++;
+            } else {
+                int cp = input.codePointAt(i);
+                if (!Character.isLetterOrDigit(cp)) break;
+                i += Character.charCount(cp);
+            }
+        }
+        return sink.word(start, i, keyword(input, start, i - start), line) ? i : -1;
+    }
+
+    // Index into the grammar's keyword list, or -1
+    private static int keyword(String s, int start, int length) {
+        switch (length) {
+            case 2:
+                switch (s.charAt(start)) {
+                    case 'd':
+                        if (s.charAt(start + 1) == 'o') return 10;
+                        return -1;
+                    case 'i':
+                        if (s.charAt(start + 1) == 'f') return 19;
+                        return -1;
+                }
+                return -1;
+            case 3:
+                switch (s.charAt(start)) {
+                    case 'f':
+                        if (s.charAt(start + 1) == 'o' && s.charAt(start + 2) == 'r') return 18;
+                        return -1;
+                    case 'i':
+                        if (s.charAt(start + 1) == 'n' && s.charAt(start + 2) == 't') return 23;
+                        return -1;
+                    case 'n':
+                        if (s.charAt(start + 1) == 'e' && s.charAt(start + 2) == 'w') return 26;
+                        return -1;
+                    case 't':
+                        if (s.charAt(start + 1) == 'r' && s.charAt(start + 2) == 'y') return 39;
+                        return -1;
+                    case 'v':
+                        if (s.charAt(start + 1) == 'a' && s.charAt(start + 2) == 'r') return 45;
+                        return -1;
+                }
+                return -1;
+            case 4:
+                switch (s.charAt(start)) {
+                    case 'b':
+                        if (s.charAt(start + 1) == 'y' && s.charAt(start + 2) == 't' && s.charAt(start + 3) == 'e') return 3;
+                        return -1;
+                    case 'c':
+                        if (s.charAt(start + 1) == 'a' && s.charAt(start + 2) == 's' && s.charAt(start + 3) == 'e') return 4;
+                        if (s.charAt(start + 1) == 'h' && s.charAt(start + 2) == 'a' && s.charAt(start + 3) == 'r') return 6;
+                        return -1;
+                    case 'e':
+                        if (s.charAt(start + 1) == 'l' && s.charAt(start + 2) == 's' && s.charAt(start + 3) == 'e') return 12;
+                        if (s.charAt(start + 1) == 'n' && s.charAt(start + 2) == 'u' && s.charAt(start + 3) == 'm') return 13;
+                        return -1;
+                    case 'l':
+                        if (s.charAt(start + 1) == 'o' && s.charAt(start + 2) == 'n' && s.charAt(start + 3) == 'g') return 25;
+                        return -1;
+                    case 'n':
+                        if (s.charAt(start + 1) == 'u' && s.charAt(start + 2) == 'l' && s.charAt(start + 3) == 'l') return 44;
+                        return -1;
+                    case 't':
+                        if (s.charAt(start + 1) == 'h' && s.charAt(start + 2) == 'i' && s.charAt(start + 3) == 's') return 36;
+                        if (s.charAt(start + 1) == 'r' && s.charAt(start + 2) == 'u' && s.charAt(start + 3) == 'e') return 42;
+                        return -1;
+                    case 'v':
+                        if (s.charAt(start + 1) == 'o' && s.charAt(start + 2) == 'i' && s.charAt(start + 3) == 'd') return 40;
+                        return -1;
+                }
+                return -1;
+            case 5:
+                switch (s.charAt(start)) {
+                    case 'b':
+                        if (s.charAt(start + 1) == 'r' && s.charAt(start + 2) == 'e' && s.charAt(start + 3) == 'a' && s.charAt(start + 4) == 'k') return 2;
+                        return -1;
+                    case 'c':
+                        if (s.charAt(start + 1) == 'a' && s.charAt(start + 2) == 't' && s.charAt(start + 3) == 'c' && s.charAt(start + 4) == 'h') return 5;
+                        if (s.charAt(start + 1) == 'l' && s.charAt(start + 2) == 'a' && s.charAt(start + 3) == 's' && s.charAt(start + 4) == 's') return 7;
+                        return -1;
+                    case 'f':
+                        if (s.charAt(start + 1) == 'i' && s.charAt(start + 2) == 'n' && s.charAt(start + 3) == 'a' && s.charAt(start + 4) == 'l') return 15;
+                        if (s.charAt(start + 1) == 'l' && s.charAt(start + 2) == 'o' && s.charAt(start + 3) == 'a' && s.charAt(start + 4) == 't') return 17;
+                        if (s.charAt(start + 1) == 'a' && s.charAt(start + 2) == 'l' && s.charAt(start + 3) == 's' && s.charAt(start + 4) == 'e') return 43;
+                        return -1;
+                    case 's':
+                        if (s.charAt(start + 1) == 'h' && s.charAt(start + 2) == 'o' && s.charAt(start + 3) == 'r' && s.charAt(start + 4) == 't') return 32;
+                        if (s.charAt(start + 1) == 'u' && s.charAt(start + 2) == 'p' && s.charAt(start + 3) == 'e' && s.charAt(start + 4) == 'r') return 34;
+                        return -1;
+                    case 't':
+                        if (s.charAt(start + 1) == 'h' && s.charAt(start + 2) == 'r' && s.charAt(start + 3) == 'o' && s.charAt(start + 4) == 'w') return 37;
+                        return -1;
+                    case 'w':
+                        if (s.charAt(start + 1) == 'h' && s.charAt(start + 2) == 'i' && s.charAt(start + 3) == 'l' && s.charAt(start + 4) == 'e') return 41;
+                        return -1;
+                }
+                return -1;
+            case 6:
+                switch (s.charAt(start)) {
+                    case 'S':
+                        if (s.charAt(start + 1) == 't' && s.charAt(start + 2) == 'r' && s.charAt(start + 3) == 'i' && s.charAt(start + 4) == 'n' && s.charAt(start + 5) == 'g') return 46;
+                        return -1;
+                    case 'd':
+                        if (s.charAt(start + 1) == 'o' && s.charAt(start + 2) == 'u' && s.charAt(start + 3) == 'b' && s.charAt(start + 4) == 'l' && s.charAt(start + 5) == 'e') return 11;
+                        return -1;
+                    case 'i':
+                        if (s.charAt(start + 1) == 'm' && s.charAt(start + 2) == 'p' && s.charAt(start + 3) == 'o' && s.charAt(start + 4) == 'r' && s.charAt(start + 5) == 't') return 21;
+                        return -1;
+                    case 'p':
+                        if (s.charAt(start + 1) == 'u' && s.charAt(start + 2) == 'b' && s.charAt(start + 3) == 'l' && s.charAt(start + 4) == 'i' && s.charAt(start + 5) == 'c') return 30;
+                        return -1;
+                    case 'r':
+                        if (s.charAt(start + 1) == 'e' && s.charAt(start + 2) == 't' && s.charAt(start + 3) == 'u' && s.charAt(start + 4) == 'r' && s.charAt(start + 5) == 'n') return 31;
+                        return -1;
+                    case 's':
+                        if (s.charAt(start + 1) == 't' && s.charAt(start + 2) == 'a' && s.charAt(start + 3) == 't' && s.charAt(start + 4) == 'i' && s.charAt(start + 5) == 'c') return 33;
+                        if (s.charAt(start + 1) == 'w' && s.charAt(start + 2) == 'i' && s.charAt(start + 3) == 't' && s.charAt(start + 4) == 'c' && s.charAt(start + 5) == 'h') return 35;
+                        return -1;
+                    case 't':
+                        if (s.charAt(start + 1) == 'h' && s.charAt(start + 2) == 'r' && s.charAt(start + 3) == 'o' && s.charAt(start + 4) == 'w' && s.charAt(start + 5) == 's') return 38;
+                        return -1;
+                }
+                return -1;
+            case 7:
+                switch (s.charAt(start)) {
+                    case 'b':
+                        if (s.charAt(start + 1) == 'o' && s.charAt(start + 2) == 'o' && s.charAt(start + 3) == 'l' && s.charAt(start + 4) == 'e' && s.charAt(start + 5) == 'a' && s.charAt(start + 6) == 'n') return 1;
+                        return -1;
+                    case 'd':
+                        if (s.charAt(start + 1) == 'e' && s.charAt(start + 2) == 'f' && s.charAt(start + 3) == 'a' && s.charAt(start + 4) == 'u' && s.charAt(start + 5) == 'l' && s.charAt(start + 6) == 't') return 9;
+                        return -1;
+                    case 'e':
+                        if (s.charAt(start + 1) == 'x' && s.charAt(start + 2) == 't' && s.charAt(start + 3) == 'e' && s.charAt(start + 4) == 'n' && s.charAt(start + 5) == 'd' && s.charAt(start + 6) == 's') return 14;
+                        return -1;
+                    case 'f':
+                        if (s.charAt(start + 1) == 'i' && s.charAt(start + 2) == 'n' && s.charAt(start + 3) == 'a' && s.charAt(start + 4) == 'l' && s.charAt(start + 5) == 'l' && s.charAt(start + 6) == 'y') return 16;
+                        return -1;
+                    case 'p':
+                        if (s.charAt(start + 1) == 'a' && s.charAt(start + 2) == 'c' && s.charAt(start + 3) == 'k' && s.charAt(start + 4) == 'a' && s.charAt(start + 5) == 'g' && s.charAt(start + 6) == 'e') return 27;
+                        if (s.charAt(start + 1) == 'r' && s.charAt(start + 2) == 'i' && s.charAt(start + 3) == 'v' && s.charAt(start + 4) == 'a' && s.charAt(start + 5) == 't' && s.charAt(start + 6) == 'e') return 28;
+                        return -1;
+                }
+                return -1;
+            case 8:
+                switch (s.charAt(start)) {
+                    case 'a':
+                        if (s.charAt(start + 1) == 'b' && s.charAt(start + 2) == 's' && s.charAt(start + 3) == 't' && s.charAt(start + 4) == 'r' && s.charAt(start + 5) == 'a' && s.charAt(start + 6) == 'c' && s.charAt(start + 7) == 't') return 0;
+                        return -1;
+                    case 'c':
+                        if (s.charAt(start + 1) == 'o' && s.charAt(start + 2) == 'n' && s.charAt(start + 3) == 't' && s.charAt(start + 4) == 'i' && s.charAt(start + 5) == 'n' && s.charAt(start + 6) == 'u' && s.charAt(start + 7) == 'e') return 8;
+                        return -1;
+                }
+                return -1;
+            case 9:
+                switch (s.charAt(start)) {
+                    case 'i':
+                        if (s.charAt(start + 1) == 'n' && s.charAt(start + 2) == 't' && s.charAt(start + 3) == 'e' && s.charAt(start + 4) == 'r' && s.charAt(start + 5) == 'f' && s.charAt(start + 6) == 'a' && s.charAt(start + 7) == 'c' && s.charAt(start + 8) == 'e') return 24;
+                        return -1;
+                    case 'p':
+                        if (s.charAt(start + 1) == 'r' && s.charAt(start + 2) == 'o' && s.charAt(start + 3) == 't' && s.charAt(start + 4) == 'e' && s.charAt(start + 5) == 'c' && s.charAt(start + 6) == 't' && s.charAt(start + 7) == 'e' && s.charAt(start + 8) == 'd') return 29;
+                        return -1;
+                }
+                return -1;
+            case 10:
+                switch (s.charAt(start)) {
+                    case 'i':
+                        if (s.charAt(start + 1) == 'm' && s.charAt(start + 2) == 'p' && s.charAt(start + 3) == 'l' && s.charAt(start + 4) == 'e' && s.charAt(start + 5) == 'm' && s.charAt(start + 6) == 'e' && s.charAt(start + 7) == 'n' && s.charAt(start + 8) == 't' && s.charAt(start + 9) == 's') return 20;
+                        if (s.charAt(start + 1) == 'n' && s.charAt(start + 2) == 's' && s.charAt(start + 3) == 't' && s.charAt(start + 4) == 'a' && s.charAt(start + 5) == 'n' && s.charAt(start + 6) == 'c' && s.charAt(start + 7) == 'e' && s.charAt(start + 8) == 'o' && s.charAt(start + 9) == 'f') return 22;
+                        return -1;
+                }
+                return -1;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,190 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// A UTF-8 file of any size, addressed with long offsets. One ByteBuffer
+// (and so one mapping, one String, one LexerEngine scan) stops at 2 GB;
+// here the file is mapped as 1 GB pages for random access, and scanned
+// with LexerEngine's UTF-8 path one window at a time. A window is a fresh
+// mapping that starts where the last complete token of the previous one
+// ended; a token that ends near the end of its window is not reported but
+// scanned again from the start of the next one, so tokens, lines and
+// offsets come out exactly as if the file were one buffer.
+//
+// The mappings stay valid after the file is closed, so an instance can be
+// kept and read from after scan() returns. Lines are counted in a long too.
+public class LargeInput {
+
+    // Same callbacks as LexerEngine.Sink, with file offsets and lines as long
+    public interface Sink {
+        default boolean symbol(char c, long pos, long line) { return true; }
+        default boolean operator(int op, long start, long end, long line) { return true; }
+        default boolean number(long start, long end, long value, long line) { return true; }
+        default boolean decimal(long start, long end, double value, long line) {
+            return number(start, end, value <= Integer.MAX_VALUE ? (long) value : -1, line);
+        }
+        default boolean malformedNumber(long start, long end, long line) {
+            return number(start, end, -1, line);
+        }
+        default boolean word(long start, long end, int keyword, long line) { return true; }
+        default boolean string(long start, long end, boolean closed, long line) { return true; }
+        default boolean unknown(int codePoint, long pos, long line) { return true; }
+        default void newline(long pos) { }
+    }
+
+    static final int PAGE_BITS = 30;
+    private static final long PAGE_MASK = (1L << PAGE_BITS) - 1;
+    static final int WINDOW = 1 << 30;
+    // A token is only final if the scanner could see this many bytes past
+    // it: enough for the longest operator or comment marker and for the
+    // UTF-8 sequence that decides whether a word or number goes on
+    static final int LOOKAHEAD = 64;
+
+    public final Path file;
+    private final long size;
+    private final MappedByteBuffer[] pages;
+
+    public LargeInput(Path file) throws IOException {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            size = channel.size();
+            pages = new MappedByteBuffer[(int) ((size + PAGE_MASK) >>> PAGE_BITS)];
+            for (int p = 0; p < pages.length; p++) {
+                long start = (long) p << PAGE_BITS;
+                pages[p] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size - start, 1L << PAGE_BITS));
+            }
+        }
+    }
+
+    public long size() { return size; }
+
+    public byte get(long pos) {
+        return pages[(int) (pos >>> PAGE_BITS)].get((int) (pos & PAGE_MASK));
+    }
+
+    // Text of the bytes [start, end), which may cross a page boundary
+    public String decode(long start, long end) {
+        int page = (int) (start >>> PAGE_BITS);
+        if (page == (int) ((end - 1) >>> PAGE_BITS)) {
+            return LexerEngine.decode(pages[page], (int) (start & PAGE_MASK), (int) (start & PAGE_MASK) + (int) (end - start));
+        }
+        byte[] bytes = new byte[Math.toIntExact(end - start)];
+        for (int k = 0; k < bytes.length; k++) bytes[k] = get(start + k);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // === SCANNER ===
+
+    public boolean scan(LexerEngine engine, Sink sink) throws IOException {
+        return scan(engine, sink, WINDOW);
+    }
+
+    // 'window' is the mapping size (> LOOKAHEAD); it only grows if a single
+    // token, or a run of blanks and comments, does not fit in one
+    boolean scan(LexerEngine engine, Sink sink, int window) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WindowSink windows = new WindowSink(sink);
+            while (true) {
+                long length = Math.min(window, size - windows.base);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, windows.base, length);
+                windows.start(buffer, windows.base + length == size);
+                boolean completed = engine.scan(buffer, windows);
+                if (windows.last) return completed;
+                if (!completed && !windows.crossed) return false; // the sink stopped
+                if (windows.resume > 0) {
+                    windows.advance();
+                } else if (window < Integer.MAX_VALUE) {
+                    window = (int) Math.min(Integer.MAX_VALUE, 2L * window);
+                } else {
+                    throw new IOException("Line " + (windows.lineBase + 1) + ": token longer than 2 GB at byte " + windows.base);
+                }
+            }
+        }
+    }
+
+    // Passes the tokens that end LOOKAHEAD before the window's end on, with
+    // offsets and lines made absolute, and remembers where the last one ended
+    private static class WindowSink implements LexerEngine.Sink {
+        final Sink sink;
+        ByteBuffer buffer;
+        long base;      // file offset of buffer index 0
+        long lineBase;  // absolute line = lineBase + window line
+        boolean last;   // the window reaches the end of the file
+        boolean crossed;
+        int resume;     // end of the last token passed on, in the window
+        int resumeLine;
+        long newlines = -1; // last '\n' passed on; a rescanned one is not repeated
+
+        WindowSink(Sink sink) {
+            this.sink = sink;
+        }
+
+        void start(ByteBuffer buffer, boolean last) {
+            this.buffer = buffer;
+            this.last = last;
+            crossed = false;
+            resume = 0;
+            resumeLine = 1;
+        }
+
+        void advance() {
+            base += resume;
+            lineBase += resumeLine - 1;
+        }
+
+        private boolean complete(int end, int line) {
+            if (!last && end > buffer.limit() - LOOKAHEAD) {
+                crossed = true;
+                return false;
+            }
+            resume = end;
+            resumeLine = line;
+            return true;
+        }
+
+        @Override public void newline(int pos) {
+            if (base + pos > newlines) {
+                newlines = base + pos;
+                sink.newline(newlines);
+            }
+        }
+
+        @Override public boolean symbol(char c, int pos, int line) {
+            return complete(pos + 1, line) && sink.symbol(c, base + pos, lineBase + line);
+        }
+
+        @Override public boolean operator(int op, int start, int end, int line) {
+            return complete(end, line) && sink.operator(op, base + start, base + end, lineBase + line);
+        }
+
+        @Override public boolean number(int start, int end, long value, int line) {
+            return complete(end, line) && sink.number(base + start, base + end, value, lineBase + line);
+        }
+
+        @Override public boolean decimal(int start, int end, double value, int line) {
+            return complete(end, line) && sink.decimal(base + start, base + end, value, lineBase + line);
+        }
+
+        @Override public boolean malformedNumber(int start, int end, int line) {
+            return complete(end, line) && sink.malformedNumber(base + start, base + end, lineBase + line);
+        }
+
+        @Override public boolean word(int start, int end, int keyword, int line) {
+            return complete(end, line) && sink.word(base + start, base + end, keyword, lineBase + line);
+        }
+
+        @Override public boolean string(int start, int end, boolean closed, int line) {
+            return complete(end, line) && sink.string(base + start, base + end, closed, lineBase + line);
+        }
+
+        @Override public boolean unknown(int codePoint, int pos, int line) {
+            int decoded = LexerEngine.decodeUtf8(buffer, pos, buffer.limit());
+            int end = pos + (decoded < 0 ? -decoded : LexerEngine.utf8Width(decoded));
+            return complete(end, line) && sink.unknown(codePoint, base + pos, lineBase + line);
+        }
+    }
+}
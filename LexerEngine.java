@@ -0,0 +1,746 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Scanner compiled from a LexerSpec. Compilation turns the spec into
+// lookup tables (an ASCII character-class table, operator candidates per
+// first character, an open-addressed keyword table), so scanning does no
+// allocation at all: tokens are handed to a Sink as [start, end) spans of
+// the input, and the front-end decides what, if anything, to materialize.
+// Input is either a String (char offsets) or UTF-8 bytes in a ByteBuffer
+// (byte offsets, nothing decoded). An engine is immutable and can be shared
+// between threads.
+public class LexerEngine {
+
+    // Receives tokens in source order. Returning false stops the scan.
+    // 'line' is the 1-based line number at the end of the token.
+    public interface Sink {
+        default boolean symbol(char c, int pos, int line) { return true; }
+        // op = index into the spec's operator list, or -1 for an operator run
+        default boolean operator(int op, int start, int end, int line) { return true; }
+        // An integer; value = its value, or -1 if it does not fit in an int
+        default boolean number(int start, int end, long value, int line) { return true; }
+        // A number with one '.' (decimalNumbers specs), value correctly rounded.
+        // Unless overridden it arrives as number() with its integer part.
+        default boolean decimal(int start, int end, double value, int line) {
+            return number(start, end, value <= Integer.MAX_VALUE ? (long) value : -1, line);
+        }
+        // A number with more than one '.', like 1.2.3; [start, end) covers all
+        // of it. Unless overridden it arrives as number() with value -1.
+        default boolean malformedNumber(int start, int end, int line) {
+            return number(start, end, -1, line);
+        }
+        // keyword = index into the spec's keyword list, or -1 for an identifier
+        default boolean word(int start, int end, int keyword, int line) { return true; }
+        // [start, end) includes the quotes; an unclosed string runs to the end of input
+        default boolean string(int start, int end, boolean closed, int line) { return true; }
+        // codePoint may be supplementary (two chars of input at pos)
+        default boolean unknown(int codePoint, int pos, int line) { return true; }
+        // A '\n' at pos, including one inside a string; the next line starts
+        // at pos + 1. Called in order, between the tokens around it.
+        default void newline(int pos) { }
+    }
+
+    // === CHARACTER CLASSES (ASCII table, the rest go through Character) ===
+    // The tables are package-private so ScannerGenerator emits exactly the
+    // same classification. Inputs are almost all ASCII, so runs of word and
+    // whitespace characters are consumed with one bit test per char; only a
+    // char >= 128 drops to the code-point path, which keeps a supplementary
+    // letter (a surrogate pair) inside its identifier.
+    static final byte OTHER = 0, SPACE = 1, QUOTE = 2, SYMBOL = 3, OPERATOR = 4, DIGIT = 5, WORD = 6;
+    final byte[] classes = new byte[128];
+    final boolean[] wordPart = new boolean[128];
+
+    // Bit c of the pair is set for ASCII char c (lo: 0-63, hi: 64-127)
+    final long wordPartLo, wordPartHi;
+    static final long SPACE_BITS = spaceBits();
+
+    // === RULES ===
+    private final char quote;
+    private final char escape;
+    private final String lineComment;
+    private final boolean decimalNumbers;
+    private final boolean operatorRuns;
+    // ',' separates numbers and no comment starts with a list byte, so the
+    // UTF-8 scanner may take the SWAR path in number lists
+    private final boolean numberLists;
+
+    // Operator trie over ASCII, root = node 0. operatorNext[node][c] is the
+    // child for c (0 = none, no edge leads back to the root; null = leaf),
+    // operatorAt[node] the spec index of the operator spelled by the path
+    // to node, or -1. The scanner walks it as far as the input allows and
+    // keeps the last operator it passed: the maximal munch, in one pass.
+    int[][] operatorNext = new int[1][];
+    int[] operatorAt = {-1};
+    private int operatorNodes = 1;
+
+    // Keywords: open addressing on String.hashCode(), which the scanner
+    // computes while it reads the word
+    private final String[] keywordTable;
+    private final int[] keywordIndex;
+    private final int keywordMask;
+
+    LexerEngine(LexerSpec spec) {
+        this.quote = spec.quote;
+        this.escape = spec.escape;
+        this.lineComment = spec.lineComment;
+        this.decimalNumbers = spec.decimalNumbers;
+        this.operatorRuns = spec.operatorRunChars != null;
+
+        // Lowest precedence first, later rules overwrite
+        for (char c = 0; c < 128; c++) {
+            if (Character.isLetter(c) || (c == '_' && spec.underscoreStart)) classes[c] = WORD;
+            if (Character.isDigit(c)) classes[c] = DIGIT;
+            wordPart[c] = Character.isLetterOrDigit(c) || (c == '_' && spec.underscorePart);
+        }
+        if (operatorRuns) {
+            for (char c : spec.operatorRunChars.toCharArray()) classes[ascii(c)] = OPERATOR;
+        }
+        for (String op : spec.operators) classes[ascii(op.charAt(0))] = OPERATOR;
+        for (char c : spec.symbols.toCharArray()) classes[ascii(c)] = SYMBOL;
+        if (quote != 0) classes[ascii(quote)] = QUOTE;
+        for (char c = 0; c < 128; c++) {
+            if (Character.isWhitespace(c)) classes[c] = SPACE;
+        }
+        if (lineComment != null) ascii(lineComment.charAt(0));
+
+        long lo = 0, hi = 0;
+        for (char c = 0; c < 128; c++) {
+            if (!wordPart[c]) continue;
+            if (c < 64) lo |= 1L << c;
+            else hi |= 1L << (c - 64);
+        }
+        wordPartLo = lo;
+        wordPartHi = hi;
+
+        for (int k = 0; k < spec.operators.size(); k++) {
+            String op = spec.operators.get(k);
+            int node = 0;
+            for (int j = 0; j < op.length(); j++) node = operatorChild(node, ascii(op.charAt(j)));
+            if (operatorAt[node] < 0) operatorAt[node] = k;
+        }
+
+        int size = 4;
+        while (size < spec.keywords.size() * 2) size *= 2;
+        keywordTable = new String[size];
+        keywordIndex = new int[size];
+        keywordMask = size - 1;
+        for (int k = 0; k < spec.keywords.size(); k++) {
+            String word = spec.keywords.get(k);
+            int slot = mix(word.hashCode()) & keywordMask;
+            while (keywordTable[slot] != null) slot = (slot + 1) & keywordMask;
+            keywordTable[slot] = word;
+            keywordIndex[slot] = k;
+        }
+
+        boolean lists = SWAR && classes[','] == SYMBOL && classes[' '] == SPACE;
+        for (char c = '0'; c <= '9'; c++) lists &= classes[c] == DIGIT;
+        if (lineComment != null) lists &= "0123456789, ".indexOf(lineComment.charAt(0)) < 0;
+        numberLists = lists;
+    }
+
+    private static char ascii(char c) {
+        if (c >= 128) throw new IllegalArgumentException("Not an ASCII character: '" + c + "'");
+        return c;
+    }
+
+    private int operatorChild(int node, char c) {
+        if (operatorNext[node] == null) operatorNext[node] = new int[128];
+        if (operatorNext[node][c] == 0) {
+            if (operatorNodes == operatorAt.length) {
+                operatorNext = Arrays.copyOf(operatorNext, operatorNodes * 2);
+                operatorAt = Arrays.copyOf(operatorAt, operatorNodes * 2);
+                Arrays.fill(operatorAt, operatorNodes, operatorAt.length, -1);
+            }
+            operatorNext[node][c] = operatorNodes++;
+        }
+        return operatorNext[node][c];
+    }
+
+    private static int mix(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    // All ASCII whitespace is below 64
+    private static long spaceBits() {
+        long bits = 0;
+        for (char c = 0; c < 64; c++) {
+            if (Character.isWhitespace(c)) bits |= 1L << c;
+        }
+        return bits;
+    }
+
+    // Slow path for c >= 128
+    private static byte classOf(int codePoint) {
+        if (Character.isWhitespace(codePoint)) return SPACE;
+        if (Character.isDigit(codePoint)) return DIGIT;
+        if (Character.isLetter(codePoint)) return WORD;
+        return OTHER;
+    }
+
+    private boolean isAsciiWordPart(char c) {
+        // Java masks the shift distance to 6 bits, so c selects its bit in either half
+        return c < 128 && ((c < 64 ? wordPartLo : wordPartHi) >>> c & 1) != 0;
+    }
+
+    private boolean isOperatorRunChar(char c) {
+        return c < 128 && classes[c] == OPERATOR;
+    }
+
+    private boolean atComment(String input, int i) {
+        return lineComment != null && input.charAt(i) == lineComment.charAt(0)
+                && input.startsWith(lineComment, i);
+    }
+
+    // === NUMBERS ===
+    // Decimals are computed while they are scanned: every digit goes into a
+    // mantissa and the digits after the '.' are counted. The slow path is
+    // only taken past 15 significant digits or 22 decimal places.
+
+    static final long EXACT = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // mantissa / 10^scale, correctly rounded because both are exact doubles
+    // and IEEE division rounds once; NaN if either is not exact
+    // (mantissa -1 means it outgrew 53 bits)
+    static double decimalValue(long mantissa, int scale) {
+        if (mantissa < 0 || scale >= POWERS_OF_TEN.length) return Double.NaN;
+        return mantissa / POWERS_OF_TEN[scale];
+    }
+
+    // Slow path; non-ASCII digits are mapped to ASCII first
+    static double parseDecimal(String text) {
+        StringBuilder ascii = new StringBuilder(text.length());
+        for (int k = 0; k < text.length(); ) {
+            int cp = text.codePointAt(k);
+            ascii.append(cp == '.' ? '.' : (char) ('0' + Character.digit(cp, 10)));
+            k += Character.charCount(cp);
+        }
+        return Double.parseDouble(ascii.toString());
+    }
+
+    // === SCANNER ===
+
+    // Returns true if the whole input was scanned, false if the sink stopped it
+    public boolean scan(String input, Sink sink) {
+        int n = input.length();
+        int i = 0;
+        int line = 1;
+
+        while (i < n) {
+            char c = input.charAt(i);
+
+            if (atComment(input, i)) {
+                i += lineComment.length();
+                while (i < n && input.charAt(i) != '\n' && input.charAt(i) != '\r') i++;
+                continue;
+            }
+
+            int width = 1;
+            byte cls;
+            if (c < 128) {
+                cls = classes[c];
+            } else {
+                int cp = input.codePointAt(i);
+                width = Character.charCount(cp);
+                cls = classOf(cp);
+            }
+
+            switch (cls) {
+                case SPACE:
+                    i += width;
+                    if (c == '\n') {
+                        line++;
+                        sink.newline(i - 1);
+                    }
+                    // Rest of an ASCII run without going back through the switch
+                    while (i < n && (c = input.charAt(i)) < 64 && (SPACE_BITS >>> c & 1) != 0) {
+                        if (c == '\n') {
+                            line++;
+                            sink.newline(i);
+                        }
+                        i++;
+                    }
+                    continue;
+
+                case QUOTE: {
+                    int start = i++;
+                    boolean closed = false;
+                    while (i < n) {
+                        char s = input.charAt(i++);
+                        if (s == quote && (escape == 0 || input.charAt(i - 2) != escape)) { closed = true; break; }
+                        if (s == '\n') {
+                            line++;
+                            sink.newline(i - 1);
+                        }
+                    }
+                    if (!sink.string(start, i, closed, line)) return false;
+                    continue;
+                }
+
+                case SYMBOL:
+                    if (!sink.symbol(c, i, line)) return false;
+                    i++;
+                    continue;
+
+                case OPERATOR: {
+                    int start = i;
+                    int op = -1;
+                    if (operatorRuns) {
+                        while (i < n && isOperatorRunChar(input.charAt(i)) && !atComment(input, i)) i++;
+                    } else {
+                        int end = i;
+                        int[] next;
+                        for (int j = i, node = 0; j < n && (next = operatorNext[node]) != null; j++) {
+                            char d = input.charAt(j);
+                            if (d >= 128 || (node = next[d]) == 0) break;
+                            if (operatorAt[node] >= 0) { op = operatorAt[node]; end = j + 1; }
+                        }
+                        // e.g. a lone ':' when only ":=" is an operator
+                        if (op < 0) {
+                            if (!sink.unknown(c, i, line)) return false;
+                            i++;
+                            continue;
+                        }
+                        i = end;
+                    }
+                    if (!sink.operator(op, start, i, line)) return false;
+                    continue;
+                }
+
+                case DIGIT: {
+                    int start = i;
+                    long value = 0;     // integer part, -1 past int range
+                    long mantissa = 0;  // every digit, for decimals
+                    int scale = 0;      // digits after the '.'
+                    int dots = 0;
+                    while (i < n) {
+                        char d = input.charAt(i);
+                        int digit;
+                        int len = 1;
+                        if (d >= '0' && d <= '9') {
+                            digit = d - '0';
+                        } else if (d == '.' && decimalNumbers) {
+                            dots++; // a second one makes it malformed, but the rest still belongs to it
+                            i++;
+                            continue;
+                        } else if (d < 128) {
+                            break;
+                        } else {
+                            int cp = input.codePointAt(i);
+                            if (!Character.isDigit(cp)) break;
+                            digit = Character.digit(cp, 10);
+                            len = Character.charCount(cp);
+                        }
+                        if (dots == 0 && value >= 0) {
+                            value = value * 10 + digit;
+                            if (value > Integer.MAX_VALUE) value = -1;
+                        }
+                        if (decimalNumbers) {
+                            mantissa = mantissa >= 0 && mantissa <= (EXACT - digit) / 10 ? mantissa * 10 + digit : -1;
+                            if (dots > 0) scale++;
+                        }
+                        i += len;
+                    }
+                    if (dots > 1) {
+                        if (!sink.malformedNumber(start, i, line)) return false;
+                    } else if (dots == 1) {
+                        double decimal = decimalValue(mantissa, scale);
+                        if (Double.isNaN(decimal)) decimal = parseDecimal(input.substring(start, i));
+                        if (!sink.decimal(start, i, decimal, line)) return false;
+                    } else {
+                        if (!sink.number(start, i, value, line)) return false;
+                    }
+                    continue;
+                }
+
+                case WORD: {
+                    int start = i;
+                    int hash = 0;
+                    while (i < n) {
+                        char w = input.charAt(i);
+                        if (isAsciiWordPart(w)) {
+                            hash = 31 * hash + w;
+                            i++;
+                            continue;
+                        }
+                        if (w < 128) break;
+                        int cp = input.codePointAt(i);
+                        if (!Character.isLetterOrDigit(cp)) break;
+                        // Same value as String.hashCode(): both chars of a pair count
+                        for (int end = i + Character.charCount(cp); i < end; i++) hash = 31 * hash + input.charAt(i);
+                    }
+                    if (!sink.word(start, i, keyword(input, start, i, hash), line)) return false;
+                    continue;
+                }
+
+                default:
+                    if (!sink.unknown(input.codePointAt(i), i, line)) return false;
+                    i += width;
+            }
+        }
+        return true;
+    }
+
+    private int keyword(String input, int start, int end, int hash) {
+        int len = end - start;
+        int slot = mix(hash) & keywordMask;
+        while (keywordTable[slot] != null) {
+            String k = keywordTable[slot];
+            if (k.length() == len && input.regionMatches(start, k, 0, len)) return keywordIndex[slot];
+            slot = (slot + 1) & keywordMask;
+        }
+        return -1;
+    }
+
+    // === UTF-8 SCANNER ===
+    // Same rules over the bytes in [position, limit) of a buffer; spans and
+    // positions are absolute buffer indexes. All spec characters are ASCII
+    // and UTF-8 continuation bytes are >= 0x80, so only a byte >= 0x80 is
+    // decoded, and only to classify it. Malformed bytes are reported as an
+    // unknown U+FFFD, split the way String decoding splits them. The
+    // buffer's position is not changed.
+
+    public boolean scan(ByteBuffer input, Sink sink) {
+        int n = input.limit();
+        int i = input.position();
+        int line = 1;
+        ByteBuffer blocks = numberLists ? input.duplicate().order(ByteOrder.LITTLE_ENDIAN) : null;
+
+        while (i < n) {
+            int b = input.get(i) & 0xff;
+
+            if (lineComment != null && b == lineComment.charAt(0) && startsWith(input, i, lineComment)) {
+                i += lineComment.length();
+                while (i < n && input.get(i) != '\n' && input.get(i) != '\r') i++;
+                continue;
+            }
+
+            int width = 1;
+            int cp = b;
+            byte cls;
+            if (b < 128) {
+                cls = classes[b];
+            } else {
+                cp = decodeUtf8(input, i, n);
+                if (cp < 0) {
+                    width = -cp;
+                    cp = 0xfffd;
+                    cls = OTHER;
+                } else {
+                    width = utf8Width(cp);
+                    cls = classOf(cp);
+                }
+            }
+
+            switch (cls) {
+                case SPACE:
+                    i += width;
+                    if (b == '\n') {
+                        line++;
+                        sink.newline(i - 1);
+                    }
+                    while (i < n && (b = input.get(i)) >= 0 && b < 64 && (SPACE_BITS >>> b & 1) != 0) {
+                        if (b == '\n') {
+                            line++;
+                            sink.newline(i);
+                        }
+                        i++;
+                    }
+                    continue;
+
+                case QUOTE: {
+                    int start = i++;
+                    boolean closed = false;
+                    while (i < n) {
+                        byte s = input.get(i++);
+                        if (s == quote && (escape == 0 || input.get(i - 2) != escape)) { closed = true; break; }
+                        if (s == '\n') {
+                            line++;
+                            sink.newline(i - 1);
+                        }
+                    }
+                    if (!sink.string(start, i, closed, line)) return false;
+                    continue;
+                }
+
+                case SYMBOL:
+                    if (!sink.symbol((char) b, i, line)) return false;
+                    i++;
+                    continue;
+
+                case OPERATOR: {
+                    int start = i;
+                    int op = -1;
+                    if (operatorRuns) {
+                        while (i < n) {
+                            int o = input.get(i);
+                            if (o < 0 || classes[o] != OPERATOR) break;
+                            if (lineComment != null && o == lineComment.charAt(0) && startsWith(input, i, lineComment)) break;
+                            i++;
+                        }
+                    } else {
+                        int end = i;
+                        int[] next;
+                        for (int j = i, node = 0; j < n && (next = operatorNext[node]) != null; j++) {
+                            int d = input.get(j);
+                            if (d < 0 || (node = next[d]) == 0) break;
+                            if (operatorAt[node] >= 0) { op = operatorAt[node]; end = j + 1; }
+                        }
+                        if (op < 0) {
+                            if (!sink.unknown(b, i, line)) return false;
+                            i++;
+                            continue;
+                        }
+                        i = end;
+                    }
+                    if (!sink.operator(op, start, i, line)) return false;
+                    continue;
+                }
+
+                case DIGIT: {
+                    if (blocks != null && n - i >= 16) {
+                        int resume = numberList(blocks, i, n, line, sink);
+                        if (resume < 0) return false;
+                        if (resume != i) {
+                            i = resume;
+                            continue;
+                        }
+                    }
+                    int start = i;
+                    long value = 0;
+                    long mantissa = 0;
+                    int scale = 0;
+                    int dots = 0;
+                    while (i < n) {
+                        int d = input.get(i) & 0xff;
+                        int digit;
+                        int len = 1;
+                        if (d >= '0' && d <= '9') {
+                            digit = d - '0';
+                        } else if (d == '.' && decimalNumbers) {
+                            dots++;
+                            i++;
+                            continue;
+                        } else if (d < 128) {
+                            break;
+                        } else {
+                            int dp = decodeUtf8(input, i, n);
+                            if (dp < 0 || !Character.isDigit(dp)) break;
+                            digit = Character.digit(dp, 10);
+                            len = utf8Width(dp);
+                        }
+                        if (dots == 0 && value >= 0) {
+                            value = value * 10 + digit;
+                            if (value > Integer.MAX_VALUE) value = -1;
+                        }
+                        if (decimalNumbers) {
+                            mantissa = mantissa >= 0 && mantissa <= (EXACT - digit) / 10 ? mantissa * 10 + digit : -1;
+                            if (dots > 0) scale++;
+                        }
+                        i += len;
+                    }
+                    if (dots > 1) {
+                        if (!sink.malformedNumber(start, i, line)) return false;
+                    } else if (dots == 1) {
+                        double decimal = decimalValue(mantissa, scale);
+                        if (Double.isNaN(decimal)) decimal = parseDecimal(decode(input, start, i));
+                        if (!sink.decimal(start, i, decimal, line)) return false;
+                    } else {
+                        if (!sink.number(start, i, value, line)) return false;
+                    }
+                    continue;
+                }
+
+                case WORD: {
+                    int start = i;
+                    int hash = 0;
+                    boolean ascii = true;
+                    while (i < n) {
+                        int w = input.get(i);
+                        if (w >= 0) {
+                            if (((w < 64 ? wordPartLo : wordPartHi) >>> w & 1) == 0) break;
+                            hash = 31 * hash + w;
+                            i++;
+                            continue;
+                        }
+                        int wp = decodeUtf8(input, i, n);
+                        if (wp < 0 || !Character.isLetterOrDigit(wp)) break;
+                        // Same value as String.hashCode() of the decoded word
+                        if (Character.isBmpCodePoint(wp)) {
+                            hash = 31 * hash + wp;
+                        } else {
+                            hash = 31 * hash + Character.highSurrogate(wp);
+                            hash = 31 * hash + Character.lowSurrogate(wp);
+                        }
+                        ascii = false;
+                        i += utf8Width(wp);
+                    }
+                    if (!sink.word(start, i, keyword(input, start, i, hash, ascii), line)) return false;
+                    continue;
+                }
+
+                default:
+                    if (!sink.unknown(cp, i, line)) return false;
+                    i += width;
+            }
+        }
+        return true;
+    }
+
+    // === SWAR NUMBER LISTS ===
+    // Long literals like {1, 2, 3, ...} are classified eight bytes at a time:
+    // one little-endian long per block, borrow-free per-byte compares and a
+    // bitmap per class. Number and comma tokens come from the bit
+    // transitions; a number's digits are only read again for its value. A
+    // block with any other byte (newline, letter, '.', non-ASCII) hands
+    // back to the scalar loop at that block, or at the number still open
+    // there. -Dlexicanalyze.swar=false turns the path off.
+
+    static final boolean SWAR = !"false".equals(System.getProperty("lexicanalyze.swar"));
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH = 0x8080808080808080L;
+    private static final long LOW7 = 0x7f7f7f7f7f7f7f7fL;
+
+    // High bit of every byte >= c; all bytes must be ASCII and c <= 0x80
+    private static long atLeast(long x, int c) {
+        return ((x | HIGH) - ONES * c) & HIGH;
+    }
+
+    // High bit of every byte equal to c
+    private static long equal(long x, int c) {
+        long t = x ^ (ONES * c);
+        return ~(((t & LOW7) + LOW7) | t) & HIGH;
+    }
+
+    // The eight high bits gathered into bits 0-7, byte order kept
+    private static int bitmap(long highBits) {
+        return (int) ((highBits >>> 7) * 0x0102040810204080L >>> 56);
+    }
+
+    // Returns where the scalar loop continues, or -1 if the sink stopped
+    private static int numberList(ByteBuffer blocks, int i, int n, int line, Sink sink) {
+        int numberStart = -1;
+        for (; i + 8 <= n; i += 8) {
+            long x = blocks.getLong(i);
+            if ((x & HIGH) != 0) break;
+            long digitBits = atLeast(x, '0') & ~atLeast(x, '9' + 1);
+            long commaBits = equal(x, ',');
+            if ((digitBits | commaBits | equal(x, ' ')) != HIGH) break;
+
+            int digits = bitmap(digitBits);
+            int commas = bitmap(commaBits);
+            int before = digits << 1 | (numberStart >= 0 ? 1 : 0); // bit b: byte b-1 is a digit
+            int starts = digits & ~before;
+            int ends = ~digits & before & 0xff;
+            for (int events = ends | commas; events != 0; events &= events - 1) {
+                int bit = Integer.numberOfTrailingZeros(events);
+                int at = i + bit;
+                if ((ends >>> bit & 1) != 0) {
+                    // The number's start is the last start bit below, or the one carried in
+                    int startsBelow = starts & ((1 << bit) - 1);
+                    int start = startsBelow != 0 ? i + 31 - Integer.numberOfLeadingZeros(startsBelow) : numberStart;
+                    int length = at - start;
+                    long value = length <= 8 && at >= 8 ? digits8(blocks.getLong(at - 8), length) : value(blocks, start, at);
+                    if (!sink.number(start, at, value, line)) return -1;
+                }
+                if ((commas >>> bit & 1) != 0 && !sink.symbol(',', at, line)) return -1;
+            }
+            // A number still open at the end of the block
+            if ((digits & 0x80) == 0) numberStart = -1;
+            else if (starts != 0) numberStart = i + 31 - Integer.numberOfLeadingZeros(starts);
+        }
+        return numberStart >= 0 ? numberStart : i;
+    }
+
+    // Value of the last 'length' (1-8) bytes of a block, all ASCII digits:
+    // the earlier bytes become '0', then digit pairs, quads and octets are
+    // combined with three multiplies
+    private static long digits8(long block, int length) {
+        long keep = -1L << (8 * (8 - length));
+        long v = ((block & keep) | (ONES * '0' & ~keep)) - ONES * '0';
+        v = (v * 10 + (v >>> 8)) & 0x00ff00ff00ff00ffL;
+        v = (v * 100 + (v >>> 16)) & 0x0000ffff0000ffffL;
+        return (v * 10000 + (v >>> 32)) & 0xffffffffL;
+    }
+
+    // ASCII digits in [start, end); -1 if the value does not fit in an int
+    private static long value(ByteBuffer input, int start, int end) {
+        long value = 0;
+        for (int k = start; k < end; k++) {
+            value = value * 10 + (input.get(k) - '0');
+            if (value > Integer.MAX_VALUE) return -1;
+        }
+        return value;
+    }
+
+    private static boolean startsWith(ByteBuffer input, int i, String ascii) {
+        if (i + ascii.length() > input.limit()) return false;
+        for (int k = 0; k < ascii.length(); k++) {
+            if (input.get(i + k) != ascii.charAt(k)) return false;
+        }
+        return true;
+    }
+
+    private int keyword(ByteBuffer input, int start, int end, int hash, boolean ascii) {
+        if (!ascii) return keyword(decode(input, start, end), 0, end - start, hash);
+        int len = end - start;
+        int slot = mix(hash) & keywordMask;
+        while (keywordTable[slot] != null) {
+            String k = keywordTable[slot];
+            if (k.length() == len && startsWith(input, start, k)) return keywordIndex[slot];
+            slot = (slot + 1) & keywordMask;
+        }
+        return -1;
+    }
+
+    // Code point of the UTF-8 sequence starting at i, or minus the length
+    // of the malformed bytes to skip there, split exactly as
+    // new String(bytes, UTF_8) splits them into U+FFFD
+    static int decodeUtf8(ByteBuffer input, int i, int limit) {
+        int b = input.get(i) & 0xff;
+        if (b < 0x80) return b;
+        int width;
+        int lo = 0x80, hi = 0xbf; // allowed range of the next byte
+        if (b >= 0xc2 && b <= 0xdf) {
+            width = 2;
+        } else if (b >= 0xe0 && b <= 0xef) {
+            width = 3;
+            if (b == 0xe0) lo = 0xa0; // overlong
+        } else if (b >= 0xf0 && b <= 0xf4) {
+            width = 4;
+            if (b == 0xf0) lo = 0x90; // overlong
+            if (b == 0xf4) hi = 0x8f; // above U+10FFFF
+        } else {
+            return -1;
+        }
+        int cp = b & (0x7f >> width);
+        for (int k = 1; k < width; k++) {
+            if (i + k >= limit) return -k;
+            int c = input.get(i + k) & 0xff;
+            if (c < lo || c > hi) return -k;
+            cp = cp << 6 | (c & 0x3f);
+            lo = 0x80;
+            hi = 0xbf;
+        }
+        // Like the JDK decoder, an encoded surrogate is one malformed unit
+        if (cp >= 0xd800 && cp <= 0xdfff) return -3;
+        return cp;
+    }
+
+    static int utf8Width(int cp) {
+        return cp < 0x80 ? 1 : cp < 0x800 ? 2 : cp < 0x10000 ? 3 : 4;
+    }
+
+    // Text of the bytes [start, end); the only place the UTF-8 scanner decodes
+    public static String decode(ByteBuffer input, int start, int end) {
+        ByteBuffer span = input.duplicate();
+        span.limit(end).position(start);
+        return StandardCharsets.UTF_8.decode(span).toString();
+    }
+}
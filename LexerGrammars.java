@@ -0,0 +1,60 @@
+// Token grammars of the three languages. ScannerGenerator turns each one into
+// a generated scanner class (ArrayLexScanner, JavaSubsetScanner,
+// EzLangScanner); LexerEngine can also compile them at runtime.
+// After changing a grammar, regenerate with: java ScannerGenerator .
+public class LexerGrammars {
+
+    public static final String[] ARRAY_LEX_KEYWORDS = {"int", "new", "String"};
+
+    public static final String[] JAVA_SUBSET_KEYWORDS = {
+        "abstract", "boolean", "break", "byte", "case", "catch", "char", "class",
+        "continue", "default", "do", "double", "else", "enum", "extends", "final",
+        "finally", "float", "for", "if", "implements", "import", "instanceof", "int",
+        "interface", "long", "new", "package", "private", "protected", "public",
+        "return", "short", "static", "super", "switch", "this", "throw", "throws",
+        "try", "void", "while", "true", "false", "null", "var", "String"
+    };
+
+    // Java's operators made of the characters =+-*/%<>!&|: ; the scanner
+    // reports the index into this array (JavaSubsetAnalyzer.OPERATOR_TYPES
+    // is in the same order)
+    public static final String[] JAVA_SUBSET_OPERATORS = {
+        "=", "==", "!", "!=", "+", "++", "+=", "-", "--", "-=", "->",
+        "*", "*=", "/", "/=", "%", "%=", "<", "<=", "<<", "<<=",
+        ">", ">=", ">>", ">>=", ">>>", ">>>=", "&", "&&", "&=", "|", "||", "|=",
+        ":", "::"
+    };
+
+    public static final String[] EZLANG_KEYWORDS = {"make", "print", "if", "list", "num", "loop", "ploop", "set", "load", "from", "to"};
+
+    // ArrayLex: '[' ']' '{' '}' ',' '=' ';', digit runs, letter/digit words
+    public static LexerSpec arrayLex() {
+        return new LexerSpec()
+                .symbols("[]{},=;")
+                .keywords(ARRAY_LEX_KEYWORDS)
+                .identifiers(false, false);
+    }
+
+    // Java subset (EnhancedLexerGUI): // comments, strings with \" escapes,
+    // numbers with one '.', Java's operators (longest match), '_' in identifiers
+    public static LexerSpec javaSubset() {
+        return new LexerSpec()
+                .lineComment("//")
+                .strings('"', '\\')
+                .symbols("[]{},;().")
+                .operators(JAVA_SUBSET_OPERATORS)
+                .decimalNumbers()
+                .keywords(JAVA_SUBSET_KEYWORDS)
+                .identifiers(true, true);
+    }
+
+    // EzLang (artix): strings without escapes, ':=' and comparison operators
+    public static LexerSpec ezLang() {
+        return new LexerSpec()
+                .symbols("[](){},;")
+                .operators(":=", "==", ">=", "<=", ":", "=", ">", "<")
+                .keywords(EZLANG_KEYWORDS)
+                .strings('"', (char) 0)
+                .identifiers(false, true);
+    }
+}
@@ -0,0 +1,88 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Declarative description of a token grammar for LexerEngine.
+// Each front-end builds one of these once and compiles it:
+//
+//   static final LexerEngine LEXER = new LexerSpec()
+//       .symbols("[]{},;")
+//       .operators(":=", ">=", "<=", "==", ":", "=", ">", "<")
+//       .keywords("make", "print", "if")
+//       .strings('"', (char) 0)
+//       .compile();
+//
+// Rules are tried in a fixed order: whitespace, line comment, string,
+// symbol, operator, number, identifier. Anything else is reported as an
+// unknown character. Symbol, operator, quote and comment characters must be
+// ASCII; letters and digits follow Character.isLetter/isDigit on code
+// points, so a supplementary letter is part of an identifier.
+public class LexerSpec {
+
+    String symbols = "";
+    final List<String> operators = new ArrayList<>();
+    String operatorRunChars = null;
+    final List<String> keywords = new ArrayList<>();
+    String lineComment = null;
+    char quote = 0;
+    char escape = 0;
+    boolean decimalNumbers = false;
+    boolean underscoreStart = false;
+    boolean underscorePart = false;
+
+    // Single-character tokens
+    public LexerSpec symbols(String chars) {
+        this.symbols = chars;
+        return this;
+    }
+
+    // Fixed operator set, matched by maximal munch
+    public LexerSpec operators(String... ops) {
+        operators.addAll(Arrays.asList(ops));
+        return this;
+    }
+
+    // Any run of these characters is one operator token (stops at a line comment)
+    public LexerSpec operatorRuns(String chars) {
+        this.operatorRunChars = chars;
+        return this;
+    }
+
+    public LexerSpec keywords(String... words) {
+        keywords.addAll(Arrays.asList(words));
+        return this;
+    }
+
+    // Comment from prefix up to (not including) the next '\n' or '\r'
+    public LexerSpec lineComment(String prefix) {
+        this.lineComment = prefix;
+        return this;
+    }
+
+    // String literals; a quote right after the escape character does not
+    // close the string. Pass 0 for no escape character.
+    public LexerSpec strings(char quote, char escape) {
+        this.quote = quote;
+        this.escape = escape;
+        return this;
+    }
+
+    // Numbers may contain one '.'
+    public LexerSpec decimalNumbers() {
+        this.decimalNumbers = true;
+        return this;
+    }
+
+    public LexerSpec identifiers(boolean underscoreStart, boolean underscorePart) {
+        this.underscoreStart = underscoreStart;
+        this.underscorePart = underscorePart;
+        return this;
+    }
+
+    public LexerEngine compile() {
+        if (!operators.isEmpty() && operatorRunChars != null) {
+            throw new IllegalArgumentException("Use either an operator set or operator runs, not both");
+        }
+        return new LexerEngine(this);
+    }
+}
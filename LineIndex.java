@@ -0,0 +1,46 @@
+import java.util.Arrays;
+
+// Start offset of every line, so an offset turns into a line and column
+// with a binary search instead of a recount. Filled in by a scanner as it
+// goes (Sink.newline, passed to newline() here) or with of() for text that
+// is not scanned. Lines end at '\n' only, the same rule the scanners use
+// for their line numbers. Four bytes per line.
+public class LineIndex {
+
+    private int[] starts = new int[64];
+    private int count = 1; // starts[0] = 0
+
+    // A '\n' at pos; must be called in increasing order of pos
+    public void newline(int pos) {
+        if (count == starts.length) starts = Arrays.copyOf(starts, count * 2);
+        starts[count++] = pos + 1;
+    }
+
+    public static LineIndex of(String text) {
+        LineIndex index = new LineIndex();
+        for (int i = text.indexOf('\n'); i >= 0; i = text.indexOf('\n', i + 1)) index.newline(i);
+        return index;
+    }
+
+    public int lines() { return count; }
+
+    // 1-based line of the char at offset (an offset past the end is on the last line)
+    public int line(int offset) {
+        int lo = 0, hi = count - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (starts[mid] <= offset) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo + 1;
+    }
+
+    // 1-based column in chars (or bytes, for an index built over bytes)
+    public int column(int offset) {
+        return offset - starts[line(offset) - 1] + 1;
+    }
+
+    public int lineStart(int line) {
+        return starts[line - 1];
+    }
+}
@@ -0,0 +1,116 @@
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+// Bulk list builtins for EzLang: sum, min, max, count and fill.
+// Each one is a single counted loop over the backing int[] with nothing in
+// the body that can escape the loop, so C2 unrolls it with no per-element
+// bounds check. On JDK 17 only fill is turned into SIMD code: with
+// -XX:-UseSuperWord fill runs about 2x slower, while sum (int added into a
+// long), min, max and the count loops time the same, i.e. they stay scalar.
+// Mapped lists are scanned one mapped chunk at a time.
+public class ListOps {
+
+    // === EzList DISPATCH ===
+
+    public static long sum(EzList list) {
+        if (list instanceof EzList.HeapList) return sum(((EzList.HeapList) list).data);
+        long s = 0;
+        for (IntBuffer chunk : ((EzList.MappedList) list).chunks) {
+            for (int i = 0, n = chunk.limit(); i < n; i++) s += chunk.get(i);
+        }
+        return s;
+    }
+
+    public static int min(EzList list) {
+        if (list instanceof EzList.HeapList) return min(((EzList.HeapList) list).data);
+        int m = Integer.MAX_VALUE;
+        for (IntBuffer chunk : ((EzList.MappedList) list).chunks) {
+            for (int i = 0, n = chunk.limit(); i < n; i++) m = Math.min(m, chunk.get(i));
+        }
+        return m;
+    }
+
+    public static int max(EzList list) {
+        if (list instanceof EzList.HeapList) return max(((EzList.HeapList) list).data);
+        int m = Integer.MIN_VALUE;
+        for (IntBuffer chunk : ((EzList.MappedList) list).chunks) {
+            for (int i = 0, n = chunk.limit(); i < n; i++) m = Math.max(m, chunk.get(i));
+        }
+        return m;
+    }
+
+    public static int countGreater(EzList list, int n) {
+        if (list instanceof EzList.HeapList) return countGreater(((EzList.HeapList) list).data, n);
+        int c = 0;
+        for (IntBuffer chunk : ((EzList.MappedList) list).chunks) {
+            for (int i = 0, len = chunk.limit(); i < len; i++) c += chunk.get(i) > n ? 1 : 0;
+        }
+        return c;
+    }
+
+    public static int countLess(EzList list, int n) {
+        if (list instanceof EzList.HeapList) return countLess(((EzList.HeapList) list).data, n);
+        int c = 0;
+        for (IntBuffer chunk : ((EzList.MappedList) list).chunks) {
+            for (int i = 0, len = chunk.limit(); i < len; i++) c += chunk.get(i) < n ? 1 : 0;
+        }
+        return c;
+    }
+
+    public static int countEqual(EzList list, int n) {
+        if (list instanceof EzList.HeapList) return countEqual(((EzList.HeapList) list).data, n);
+        int c = 0;
+        for (IntBuffer chunk : ((EzList.MappedList) list).chunks) {
+            for (int i = 0, len = chunk.limit(); i < len; i++) c += chunk.get(i) == n ? 1 : 0;
+        }
+        return c;
+    }
+
+    // Only heap lists are writable
+    public static void fill(EzList.HeapList list, int value) {
+        fill(list.data, value);
+    }
+
+    // === int[] LOOPS ===
+
+    public static long sum(int[] a) {
+        long s = 0;
+        for (int i = 0; i < a.length; i++) s += a[i];
+        return s;
+    }
+
+    // Callers check for an empty list first
+    public static int min(int[] a) {
+        int m = Integer.MAX_VALUE;
+        for (int i = 0; i < a.length; i++) m = Math.min(m, a[i]);
+        return m;
+    }
+
+    public static int max(int[] a) {
+        int m = Integer.MIN_VALUE;
+        for (int i = 0; i < a.length; i++) m = Math.max(m, a[i]);
+        return m;
+    }
+
+    public static int countGreater(int[] a, int n) {
+        int c = 0;
+        for (int i = 0; i < a.length; i++) c += a[i] > n ? 1 : 0;
+        return c;
+    }
+
+    public static int countLess(int[] a, int n) {
+        int c = 0;
+        for (int i = 0; i < a.length; i++) c += a[i] < n ? 1 : 0;
+        return c;
+    }
+
+    public static int countEqual(int[] a, int n) {
+        int c = 0;
+        for (int i = 0; i < a.length; i++) c += a[i] == n ? 1 : 0;
+        return c;
+    }
+
+    public static void fill(int[] a, int value) {
+        Arrays.fill(a, value);
+    }
+}
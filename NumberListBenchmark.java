@@ -0,0 +1,112 @@
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Throughput of one huge ArrayLex literal, "int[] big = {n, n, ...};",
+// through three scanners:
+//   string  generated ArrayLexScanner over the decoded String
+//   scalar  LexerEngine UTF-8 path, one byte at a time (-Dlexicanalyze.swar=false)
+//   swar    LexerEngine UTF-8 path with the eight-bytes-per-step number lists
+// Each mode runs in its own JVM, because the SWAR switch is read once at
+// class load. The sink only counts tokens and sums values.
+//
+// Usage: java NumberListBenchmark [elements] [runs]   (default 100000000 5; needs ~3 GB of heap)
+public class NumberListBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--child")) {
+            child(args[1], Long.parseLong(args[2]), Integer.parseInt(args[3]));
+            return;
+        }
+        long elements = args.length > 0 ? Long.parseLong(args[0]) : 100_000_000L;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        System.out.printf("%,d elements, best of %d runs%n", elements, runs);
+        System.out.printf("%-8s %10s %10s %12s%n", "Mode", "ms", "MB/s", "ns/element");
+        for (String mode : new String[]{"string", "scalar", "swar"}) {
+            List<String> command = new ArrayList<>(List.of(java, "-Xmx3g"));
+            if (!mode.equals("swar")) command.add("-Dlexicanalyze.swar=false");
+            command.addAll(List.of("-cp", System.getProperty("java.class.path"), "NumberListBenchmark",
+                    "--child", mode, Long.toString(elements), Integer.toString(runs)));
+            Process p = new ProcessBuilder(command).redirectErrorStream(true).start();
+            try (BufferedReader out = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = out.readLine()) != null) System.out.println(line);
+            }
+            p.waitFor();
+        }
+    }
+
+    static void child(String mode, long elements, int runs) {
+        ByteBuffer input = literal(elements, 42);
+        String text = null;
+        if (mode.equals("string")) {
+            byte[] bytes = new byte[input.remaining()];
+            input.get(bytes);
+            input = null;
+            text = new String(bytes, StandardCharsets.ISO_8859_1); // ASCII, so one byte per char
+        }
+        LexerEngine engine = LexerGrammars.arrayLex().compile();
+        long[] totals = new long[2]; // tokens, sum of values
+
+        LexerEngine.Sink sink = new LexerEngine.Sink() {
+            @Override public boolean symbol(char c, int pos, int line) { totals[0]++; return true; }
+            @Override public boolean word(int start, int end, int keyword, int line) { totals[0]++; return true; }
+            @Override public boolean number(int start, int end, long value, int line) {
+                totals[0]++;
+                totals[1] += value;
+                return true;
+            }
+        };
+
+        // Warm up on a 64 KB prefix, so the measured runs use fully compiled
+        // scanners instead of on-stack-replacement code from one long call
+        String warmText = text != null ? text.substring(0, Math.min(text.length(), 64 << 10)) : null;
+        ByteBuffer warmBytes = input != null ? input.duplicate().limit(Math.min(input.limit(), 64 << 10)) : null;
+        for (int w = 0; w < 3000; w++) {
+            if (warmText != null) ArrayLexScanner.scan(warmText, sink);
+            else engine.scan(warmBytes, sink);
+        }
+
+        long best = Long.MAX_VALUE;
+        long size = text != null ? text.length() : input.remaining();
+        for (int r = 0; r < runs; r++) {
+            totals[0] = totals[1] = 0;
+            long start = System.nanoTime();
+            if (text != null) ArrayLexScanner.scan(text, sink);
+            else engine.scan(input, sink);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-8s %10d %10.0f %12.2f   (%d tokens, checksum %d)%n", mode, best / 1_000_000,
+                size / 1e6 / (best / 1e9), (double) best / elements, totals[0], totals[1]);
+    }
+
+    // Values 0-99999, ", " between them, one line
+    static ByteBuffer literal(long elements, long seed) {
+        long capacity = 64 + elements * 7;
+        if (capacity > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Too many elements for one buffer: " + elements);
+        ByteBuffer out = ByteBuffer.allocate((int) capacity);
+        out.put("int[] big = {".getBytes(StandardCharsets.US_ASCII));
+        SplittableRandom random = new SplittableRandom(seed);
+        byte[] digits = new byte[5];
+        for (long e = 0; e < elements; e++) {
+            if (e > 0) out.put((byte) ',').put((byte) ' ');
+            int value = random.nextInt(100_000);
+            int d = digits.length;
+            do {
+                digits[--d] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            out.put(digits, d, digits.length - d);
+        }
+        out.put("};\n".getBytes(StandardCharsets.US_ASCII));
+        out.flip();
+        return out;
+    }
+}
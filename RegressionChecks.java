@@ -0,0 +1,120 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Regression checks for the EzLang runtime and the Java-subset analyzer,
+// run headless through HeadlessAnalysis: each case is a program plus the
+// status and a piece of output it must produce (for the analyzer, the
+// exact diagnostics). Prints one line per failing case and exits 1 if any
+// failed.
+//
+// Usage: java RegressionChecks   (run from the compiled classes directory)
+public class RegressionChecks {
+
+    static int failures = 0;
+
+    public static void main(String[] args) throws IOException {
+        // A loop nested two deep reuses 'i', so data[i] in the innermost
+        // body must not be marked as proven in range from the outer bounds
+        expect("nested loop rebinding the proven variable",
+                "make list data := [1, 2, 3]\n"
+              + "loop i from 0 to 3 {\n"
+              + "  loop j from 0 to 1 {\n"
+              + "    loop i from 0 to 10 {\n"
+              + "      print data[i]\n"
+              + "    }\n"
+              + "  }\n"
+              + "}\n",
+                "ERROR", "Index [3] out of bounds for 'data'");
+
+        // The statement budget is per run, not per ploop iteration or split
+        String halt = "Execution Halt: Infinite loop detected";
+        expect("loop over the statement budget", "loop i from 0 to 200000 {\n  print 1\n}\n", "ERROR", halt);
+        expect("ploop over the statement budget", "ploop i from 0 to 200000 {\n  print 1\n}\n", "ERROR", halt);
+        expectProfiled("profiled ploop over the statement budget", "ploop i from 0 to 200000 {\n  print 1\n}\n", "ERROR", halt);
+        for (String loop : new String[]{"loop", "ploop"}) {
+            expect(loop + " just within the statement budget", loop + " i from 0 to 33333 {\n  print 1\n}\n", "OK", "1\n");
+            expect(loop + " just over the statement budget", loop + " i from 0 to 33334 {\n  print 1\n}\n", "ERROR", halt);
+        }
+        expectProfiled("profiled ploop just over the statement budget", "ploop i from 0 to 33334 {\n  print 1\n}\n", "ERROR", halt);
+
+        // From Integer.MAX_VALUE the body still runs once and the variable
+        // wraps, as in the serial loop
+        String wrap = "ploop i from 2147483647 to 5 {\n  print \"x\"\n}\nprint i\n";
+        expect("ploop from Integer.MAX_VALUE", wrap, "OK", "x\n" + Integer.MIN_VALUE);
+        expectProfiled("profiled ploop from Integer.MAX_VALUE", wrap, "OK", "x\n" + Integer.MIN_VALUE);
+
+        // Mapped data may hold any int, so element MIN_VALUE is not an error
+        Path data = Files.createTempFile("regression", ".bin");
+        try {
+            ByteBuffer ints = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+            ints.putInt(5).putInt(Integer.MIN_VALUE).putInt(7);
+            Files.write(data, ints.array());
+            expect("loaded element equal to Integer.MIN_VALUE",
+                    "make list d := load \"" + data + "\"\nprint d[1]\n", "OK", String.valueOf(Integer.MIN_VALUE));
+        } finally {
+            Files.delete(data);
+        }
+
+        // After a lexical error the rest of the statement is dropped, so its
+        // tokens do not run into the next statement and fake a second error
+        String identifierStart = "Lexical Error: Identifiers cannot start with numbers (found '2x...')\n";
+        expectDiagnostics("lexical error resync at ';'", "int 2x = 5; String s = \"a\";", "Line 1, col 5: " + identifierStart);
+        expectDiagnostics("lexical error resync across lines", "int 2x;\nint y = 7;", "Line 1, col 5: " + identifierStart);
+
+        System.out.println(failures == 0 ? "All checks passed." : failures + " check(s) failed.");
+        if (failures > 0) System.exit(1);
+    }
+
+    static void expect(String name, String program, String status, String output) {
+        String[] result;
+        try {
+            result = HeadlessAnalysis.ezLang(program);
+        } catch (RuntimeException e) {
+            fail(name, "threw " + e);
+            return;
+        }
+        if (!result[0].equals(status)) fail(name, "status " + result[0] + ", expected " + status);
+        else if (!result[1].contains(output)) fail(name, "output lacks \"" + output + "\"");
+    }
+
+    // Same phases as HeadlessAnalysis.ezLang with a profiler attached
+    static void expectProfiled(String name, String program, String status, String output) {
+        StringBuilder body = new StringBuilder();
+        EzLangRuntime runtime = new EzLangRuntime(body::append, new EzProfiler());
+        String result = "OK";
+        try {
+            if (runtime.runTokenizer(program)) {
+                runtime.preCheckStructure();
+                runtime.optimizeProgram();
+                runtime.runInterpreter();
+            }
+        } catch (EzLangRuntime.SyntaxException e) {
+            result = "ERROR";
+            body.append("RUNTIME ERROR:\n").append(e.getMessage()).append('\n');
+        } catch (RuntimeException e) {
+            fail(name, "threw " + e);
+            return;
+        }
+        if (!result.equals(status)) fail(name, "status " + result + ", expected " + status);
+        else if (!body.toString().contains(output)) fail(name, "output lacks \"" + output + "\"");
+    }
+
+    static void expectDiagnostics(String name, String source, String diagnostics) {
+        String[] result;
+        try {
+            result = HeadlessAnalysis.javaSubsetDiagnostics(new JavaSubsetAnalyzer(), source);
+        } catch (RuntimeException e) {
+            fail(name, "threw " + e);
+            return;
+        }
+        if (!result[1].equals(diagnostics)) fail(name, "diagnostics were \"" + result[1].trim() + "\"");
+    }
+
+    static void fail(String name, String why) {
+        failures++;
+        System.out.println("FAIL " + name + ": " + why);
+    }
+}
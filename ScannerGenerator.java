@@ -0,0 +1,475 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Build-time code generator: writes one plain Java scanner class per grammar
+// in LexerGrammars. Each scanner is a switch over the current character with
+// the operator and keyword matching unrolled into nested switches and char
+// comparisons, so there are no tables to interpret and nothing to build at
+// startup. The generated classes follow the LexerEngine.Sink contract and
+// scan exactly like LexerEngine would for the same spec.
+//
+// Usage: java ScannerGenerator [--check] [outDir]
+//   --check   do not write; exit 1 if a generated file is missing or stale
+public class ScannerGenerator {
+
+    private final StringBuilder out = new StringBuilder();
+    private int indent = 0;
+
+    // === ENTRY POINT ===
+
+    public static void main(String[] args) throws IOException {
+        boolean check = args.length > 0 && args[0].equals("--check");
+        Path dir = Paths.get(args.length > (check ? 1 : 0) ? args[check ? 1 : 0] : ".");
+
+        Map<String, String> sources = new TreeMap<>();
+        sources.put("ArrayLexScanner", generate("ArrayLexScanner", "arrayLex", LexerGrammars.arrayLex()));
+        sources.put("JavaSubsetScanner", generate("JavaSubsetScanner", "javaSubset", LexerGrammars.javaSubset()));
+        sources.put("EzLangScanner", generate("EzLangScanner", "ezLang", LexerGrammars.ezLang()));
+
+        boolean stale = false;
+        for (Map.Entry<String, String> e : sources.entrySet()) {
+            Path file = dir.resolve(e.getKey() + ".java");
+            if (check) {
+                boolean same = Files.exists(file)
+                        && new String(Files.readAllBytes(file), StandardCharsets.UTF_8).equals(e.getValue());
+                if (!same) {
+                    System.err.println(file + " is out of date, run: java ScannerGenerator " + dir);
+                    stale = true;
+                }
+            } else {
+                Files.write(file, e.getValue().getBytes(StandardCharsets.UTF_8));
+                System.out.println("Wrote " + file);
+            }
+        }
+        if (stale) System.exit(1);
+    }
+
+    public static String generate(String className, String grammar, LexerSpec spec) {
+        return new ScannerGenerator().emitClass(className, grammar, spec, spec.compile());
+    }
+
+    // === CLASS ===
+
+    private String emitClass(String className, String grammar, LexerSpec spec, LexerEngine engine) {
+        line("// GENERATED by ScannerGenerator from LexerGrammars." + grammar + "() - do not edit.");
+        line("// Regenerate with: java ScannerGenerator .");
+        line("public final class " + className + " {");
+        indent++;
+        line("");
+        line("private " + className + "() {}");
+        line("");
+        emitScan(spec, engine);
+        emitNumber(spec);
+        emitWord(engine);
+        emitKeyword(spec);
+        if (spec.operatorRunChars != null) emitOperatorRun(spec, engine);
+        indent--;
+        if (out.toString().endsWith("\n\n")) out.setLength(out.length() - 1);
+        line("}");
+        return out.toString();
+    }
+
+    private void emitScan(LexerSpec spec, LexerEngine engine) {
+        line("// ASCII whitespace, bit c set for char c (all of it is below 64)");
+        line("private static final long SPACE_BITS = 0x" + Long.toHexString(LexerEngine.SPACE_BITS) + "L;");
+        line("");
+        line("public static boolean scan(String input, LexerEngine.Sink sink) {");
+        indent++;
+        line("int n = input.length();");
+        line("int i = 0;");
+        line("int line = 1;");
+        line("");
+        line("while (i < n) {");
+        indent++;
+        line("char c = input.charAt(i);");
+        if (spec.lineComment != null) {
+            line("");
+            line("if (c == " + charLit(spec.lineComment.charAt(0)) + " && input.startsWith(" + stringLit(spec.lineComment) + ", i)) {");
+            indent++;
+            line("i += " + spec.lineComment.length() + ";");
+            line("while (i < n && input.charAt(i) != '\\n' && input.charAt(i) != '\\r') i++;");
+            line("continue;");
+            indent--;
+            line("}");
+        }
+        line("");
+        line("switch (c) {");
+        indent++;
+
+        emitCases(engine, LexerEngine.SPACE);
+        indent++;
+        emitNewline("c", "i");
+        line("i++;");
+        line("while (i < n && (c = input.charAt(i)) < 64 && (SPACE_BITS >>> c & 1) != 0) {");
+        indent++;
+        emitNewline("c", "i");
+        line("i++;");
+        indent--;
+        line("}");
+        line("continue;");
+        indent--;
+
+        if (spec.quote != 0) {
+            line("case " + charLit(spec.quote) + ": {");
+            indent++;
+            line("int start = i++;");
+            line("boolean closed = false;");
+            line("while (i < n) {");
+            indent++;
+            line("char s = input.charAt(i++);");
+            String escaped = spec.escape == 0 ? "" : " && input.charAt(i - 2) != " + charLit(spec.escape);
+            line("if (s == " + charLit(spec.quote) + escaped + ") { closed = true; break; }");
+            emitNewline("s", "i - 1");
+            indent--;
+            line("}");
+            line("if (!sink.string(start, i, closed, line)) return false;");
+            line("continue;");
+            indent--;
+            line("}");
+        }
+
+        if (emitCases(engine, LexerEngine.SYMBOL)) {
+            indent++;
+            line("if (!sink.symbol(c, i, line)) return false;");
+            line("i++;");
+            line("continue;");
+            indent--;
+        }
+
+        if (spec.operatorRunChars != null) {
+            emitCases(engine, LexerEngine.OPERATOR);
+            indent++;
+            line("i = operatorRun(input, i, line, sink);");
+            line("if (i < 0) return false;");
+            line("continue;");
+            indent--;
+        } else {
+            int[] firsts = engine.operatorNext[0];
+            for (char c = 0; firsts != null && c < 128; c++) {
+                if (firsts[c] != 0) emitOperatorCase(engine, c, firsts[c]);
+            }
+        }
+
+        emitCases(engine, LexerEngine.DIGIT);
+        indent++;
+        line("i = number(input, i, line, sink);");
+        line("if (i < 0) return false;");
+        line("continue;");
+        indent--;
+
+        emitCases(engine, LexerEngine.WORD);
+        indent++;
+        line("i = word(input, i, line, sink);");
+        line("if (i < 0) return false;");
+        line("continue;");
+        indent--;
+
+        line("default:");
+        indent++;
+        line("if (c >= 128) {");
+        indent++;
+        line("// Code-point path, so a surrogate pair is classified as one character");
+        line("int cp = input.codePointAt(i);");
+        line("if (Character.isWhitespace(cp)) { i += Character.charCount(cp); continue; }");
+        line("if (Character.isDigit(cp)) { i = number(input, i, line, sink); if (i < 0) return false; continue; }");
+        line("if (Character.isLetter(cp)) { i = word(input, i, line, sink); if (i < 0) return false; continue; }");
+        line("if (!sink.unknown(cp, i, line)) return false;");
+        line("i += Character.charCount(cp);");
+        line("continue;");
+        indent--;
+        line("}");
+        line("if (!sink.unknown(c, i, line)) return false;");
+        line("i++;");
+        line("continue;");
+        indent--;
+
+        indent--;
+        line("}");
+        indent--;
+        line("}");
+        line("return true;");
+        indent--;
+        line("}");
+        line("");
+    }
+
+    // Case labels for every ASCII character of one class; false if there are none
+    private boolean emitCases(LexerEngine engine, byte cls) {
+        List<String> labels = new ArrayList<>();
+        for (char c = 0; c < 128; c++) {
+            if (engine.classes[c] == cls) labels.add("case " + charLit(c) + ":");
+        }
+        for (int k = 0; k < labels.size(); k += 8) {
+            line(String.join(" ", labels.subList(k, Math.min(k + 8, labels.size()))));
+        }
+        return !labels.isEmpty();
+    }
+
+    // The operator trie below 'first', unrolled into nested tests on the
+    // next character. A branch that finds no longer operator falls out to
+    // the operator of its parent, so the deepest match wins (maximal munch).
+    private void emitOperatorCase(LexerEngine engine, char first, int node) {
+        line("case " + charLit(first) + ":");
+        indent++;
+        emitOperatorNode(engine, node, 1);
+        if (engine.operatorAt[node] < 0) {
+            // e.g. a lone ':' when only ":=" is an operator
+            line("if (!sink.unknown(c, i, line)) return false;");
+            line("i++;");
+            line("continue;");
+        }
+        indent--;
+    }
+
+    private void emitOperatorNode(LexerEngine engine, int node, int depth) {
+        int[] next = engine.operatorNext[node];
+        for (char c = 0; next != null && c < 128; c++) {
+            if (next[c] == 0) continue;
+            line("if (i + " + depth + " < n && input.charAt(i + " + depth + ") == " + charLit(c) + ") {");
+            indent++;
+            emitOperatorNode(engine, next[c], depth + 1);
+            indent--;
+            line("}");
+        }
+        int op = engine.operatorAt[node];
+        if (op < 0) return;
+        line("if (!sink.operator(" + op + ", i, i + " + depth + ", line)) return false;");
+        line(depth == 1 ? "i++;" : "i += " + depth + ";");
+        line("continue;");
+    }
+
+    // === HELPERS IN THE GENERATED CLASS ===
+
+    private void emitNumber(LexerSpec spec) {
+        boolean decimals = spec.decimalNumbers;
+        if (decimals) {
+            line("// Integers go to number() (value -1 if it does not fit in an int), numbers");
+            line("// with one '.' to decimal(), with more than one to malformedNumber()");
+        } else {
+            line("// value = decoded integer, or -1 if it does not fit in an int");
+        }
+        line("private static int number(String input, int i, int line, LexerEngine.Sink sink) {");
+        indent++;
+        line("int n = input.length();");
+        line("int start = i;");
+        line("long value = 0;");
+        if (decimals) {
+            line("long mantissa = 0;");
+            line("int scale = 0;");
+            line("int dots = 0;");
+        }
+        line("while (i < n) {");
+        indent++;
+        line("char d = input.charAt(i);");
+        line("int digit;");
+        line("int len = 1;");
+        line("if (d >= '0' && d <= '9') {");
+        indent++;
+        line("digit = d - '0';");
+        indent--;
+        if (decimals) {
+            line("} else if (d == '.') {");
+            indent++;
+            line("dots++;");
+            line("i++;");
+            line("continue;");
+            indent--;
+        }
+        line("} else if (d < 128) {");
+        indent++;
+        line("break;");
+        indent--;
+        line("} else {");
+        indent++;
+        line("int cp = input.codePointAt(i);");
+        line("if (!Character.isDigit(cp)) break;");
+        line("digit = Character.digit(cp, 10);");
+        line("len = Character.charCount(cp);");
+        indent--;
+        line("}");
+        line("if (" + (decimals ? "dots == 0 && " : "") + "value >= 0) {");
+        indent++;
+        line("value = value * 10 + digit;");
+        line("if (value > Integer.MAX_VALUE) value = -1;");
+        indent--;
+        line("}");
+        if (decimals) {
+            line("mantissa = mantissa >= 0 && mantissa <= (LexerEngine.EXACT - digit) / 10 ? mantissa * 10 + digit : -1;");
+            line("if (dots > 0) scale++;");
+        }
+        line("i += len;");
+        indent--;
+        line("}");
+        if (decimals) {
+            line("if (dots > 1) return sink.malformedNumber(start, i, line) ? i : -1;");
+            line("if (dots == 1) {");
+            indent++;
+            line("double decimal = LexerEngine.decimalValue(mantissa, scale);");
+            line("if (Double.isNaN(decimal)) decimal = LexerEngine.parseDecimal(input.substring(start, i));");
+            line("return sink.decimal(start, i, decimal, line) ? i : -1;");
+            indent--;
+            line("}");
+        }
+        line("return sink.number(start, i, value, line) ? i : -1;");
+        indent--;
+        line("}");
+        line("");
+    }
+
+    private void emitWord(LexerEngine engine) {
+        line("private static final long WORD_PART_LO = 0x" + Long.toHexString(engine.wordPartLo) + "L;");
+        line("private static final long WORD_PART_HI = 0x" + Long.toHexString(engine.wordPartHi) + "L;");
+        line("");
+        line("private static int word(String input, int i, int line, LexerEngine.Sink sink) {");
+        indent++;
+        line("int n = input.length();");
+        line("int start = i;");
+        line("while (i < n) {");
+        indent++;
+        line("char c = input.charAt(i);");
+        line("if (c < 128) {");
+        indent++;
+        line("// The shift distance is masked to 6 bits, so c selects its bit in either half");
+        line("if (((c < 64 ? WORD_PART_LO : WORD_PART_HI) >>> c & 1) == 0) break;");
+        line("i++;");
+        indent--;
+        line("} else {");
+        indent++;
+        line("int cp = input.codePointAt(i);");
+        line("if (!Character.isLetterOrDigit(cp)) break;");
+        line("i += Character.charCount(cp);");
+        indent--;
+        line("}");
+        indent--;
+        line("}");
+        line("return sink.word(start, i, keyword(input, start, i - start), line) ? i : -1;");
+        indent--;
+        line("}");
+        line("");
+    }
+
+    // switch on length, then on first character, then compare the rest
+    private void emitKeyword(LexerSpec spec) {
+        Map<Integer, Map<Character, List<Integer>>> byLength = new TreeMap<>();
+        for (int k = 0; k < spec.keywords.size(); k++) {
+            String w = spec.keywords.get(k);
+            byLength.computeIfAbsent(w.length(), x -> new TreeMap<>())
+                    .computeIfAbsent(w.charAt(0), x -> new ArrayList<>()).add(k);
+        }
+        line("// Index into the grammar's keyword list, or -1");
+        line("private static int keyword(String s, int start, int length) {");
+        indent++;
+        line("switch (length) {");
+        indent++;
+        for (Map.Entry<Integer, Map<Character, List<Integer>>> len : byLength.entrySet()) {
+            line("case " + len.getKey() + ":");
+            indent++;
+            line("switch (s.charAt(start)) {");
+            indent++;
+            for (Map.Entry<Character, List<Integer>> first : len.getValue().entrySet()) {
+                line("case " + charLit(first.getKey()) + ":");
+                indent++;
+                for (int k : first.getValue()) {
+                    String w = spec.keywords.get(k);
+                    StringBuilder cond = new StringBuilder();
+                    for (int j = 1; j < w.length(); j++) {
+                        if (cond.length() > 0) cond.append(" && ");
+                        cond.append("s.charAt(start + ").append(j).append(") == ").append(charLit(w.charAt(j)));
+                    }
+                    if (cond.length() == 0) line("return " + k + ";");
+                    else line("if (" + cond + ") return " + k + ";");
+                }
+                line("return -1;");
+                indent--;
+            }
+            indent--;
+            line("}");
+            line("return -1;");
+            indent--;
+        }
+        indent--;
+        line("}");
+        line("return -1;");
+        indent--;
+        line("}");
+        line("");
+    }
+
+    private void emitOperatorRun(LexerSpec spec, LexerEngine engine) {
+        long lo = 0, hi = 0;
+        for (char c = 0; c < 128; c++) {
+            if (engine.classes[c] != LexerEngine.OPERATOR) continue;
+            if (c < 64) lo |= 1L << c;
+            else hi |= 1L << (c - 64);
+        }
+        line("private static final long OPERATOR_LO = 0x" + Long.toHexString(lo) + "L;");
+        line("private static final long OPERATOR_HI = 0x" + Long.toHexString(hi) + "L;");
+        line("");
+        line("// Any run of operator characters is one token (op = -1)");
+        line("private static int operatorRun(String input, int i, int line, LexerEngine.Sink sink) {");
+        indent++;
+        line("int n = input.length();");
+        line("int start = i;");
+        line("while (i < n) {");
+        indent++;
+        line("char c = input.charAt(i);");
+        line("boolean op = c < 64 ? (OPERATOR_LO >>> c & 1) != 0 : c < 128 && (OPERATOR_HI >>> (c - 64) & 1) != 0;");
+        line("if (!op) break;");
+        if (spec.lineComment != null) {
+            line("if (c == " + charLit(spec.lineComment.charAt(0)) + " && input.startsWith(" + stringLit(spec.lineComment) + ", i)) break;");
+        }
+        line("i++;");
+        indent--;
+        line("}");
+        line("return sink.operator(-1, start, i, line) ? i : -1;");
+        indent--;
+        line("}");
+    }
+
+    // Counts a '\n' in 'c' that sits at input index 'pos'
+    private void emitNewline(String c, String pos) {
+        line("if (" + c + " == '\\n') {");
+        indent++;
+        line("line++;");
+        line("sink.newline(" + pos + ");");
+        indent--;
+        line("}");
+    }
+
+    // === SOURCE TEXT ===
+
+    private void line(String text) {
+        if (!text.isEmpty()) {
+            for (int k = 0; k < indent; k++) out.append("    ");
+        }
+        out.append(text).append('\n');
+    }
+
+    // Non-printable characters become plain ints; the switch is on a char, so
+    // 'case 10:' works and no \\u escape ever reaches the Java source
+    static String charLit(char c) {
+        if (c == '\'') return "'\\''";
+        if (c == '\\') return "'\\\\'";
+        if (c == '\n') return "'\\n'";
+        if (c == '\r') return "'\\r'";
+        if (c == '\t') return "'\\t'";
+        if (c < 32 || c > 126) return Integer.toString(c);
+        return "'" + c + "'";
+    }
+
+    static String stringLit(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : s.toCharArray()) {
+            if (c == '"' || c == '\\') sb.append('\\');
+            sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,104 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.spi.ToolProvider;
+
+// Startup benchmark for HeadlessLauncher: starts it many times under a few
+// JVM configurations and reports time to first token (first output line)
+// and time to exit, median and p90, in milliseconds.
+//
+// AppCDS only archives classes that come from a JAR, so the classes on the
+// current classpath are first packed into lexicanalyze.jar. The archive
+// lexicanalyze.jsa is then dumped from one training run
+// (HeadlessLauncher --train with -XX:ArchiveClassesAtExit). Both are
+// rebuilt when missing or when --train is given. Scripts can reuse them:
+//   java -XX:SharedArchiveFile=lexicanalyze.jsa -cp lexicanalyze.jar HeadlessLauncher arraylex file.txt
+//
+// Usage: java StartupBenchmark [runs] [--train]   (run from the compiled classes directory)
+public class StartupBenchmark {
+
+    static final String JAR = "lexicanalyze.jar";
+    static final String ARCHIVE = "lexicanalyze.jsa";
+
+    public static void main(String[] args) throws Exception {
+        int runs = 20;
+        boolean train = false;
+        for (String a : args) {
+            if (a.equals("--train")) train = true;
+            else runs = Integer.parseInt(a);
+        }
+
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        if (train || !Files.exists(Paths.get(JAR))) buildJar();
+        if (train || !Files.exists(Paths.get(ARCHIVE))) {
+            Files.deleteIfExists(Paths.get(ARCHIVE));
+            run(List.of(java, "-XX:ArchiveClassesAtExit=" + ARCHIVE, "-cp", JAR, "HeadlessLauncher", "--train"));
+            System.out.println("Dumped " + ARCHIVE + " from HeadlessLauncher --train");
+        }
+
+        Path input = Files.createTempFile("startup", ".txt");
+        Files.write(input, "int[] myArr = {10, 20, 500};\n".getBytes(StandardCharsets.UTF_8));
+        String[] launch = {"-cp", JAR, "HeadlessLauncher", "arraylex", input.toString()};
+
+        System.out.printf("%-26s %12s %12s %12s %12s%n", "Configuration", "first p50", "first p90", "exit p50", "exit p90");
+        measure("no CDS (-Xshare:off)", java, List.of("-Xshare:off"), launch, runs);
+        measure("JDK CDS (default)", java, List.of(), launch, runs);
+        measure("AppCDS", java, List.of("-XX:SharedArchiveFile=" + ARCHIVE), launch, runs);
+        measure("AppCDS + C1 only", java, List.of("-XX:SharedArchiveFile=" + ARCHIVE, "-XX:TieredStopAtLevel=1"), launch, runs);
+        Files.delete(input);
+    }
+
+    // Packs every .class file of the first classpath directory
+    static void buildJar() throws IOException {
+        String dir = System.getProperty("java.class.path").split(File.pathSeparator)[0];
+        ToolProvider jar = ToolProvider.findFirst("jar")
+                .orElseThrow(() -> new IOException("the jar tool is not available in this JDK"));
+        Files.deleteIfExists(Paths.get(JAR));
+        int status = jar.run(System.out, System.err, "--create", "--file", JAR, "-C", dir, ".");
+        if (status != 0) throw new IOException("jar exited with " + status);
+        System.out.println("Packed " + dir + " into " + JAR);
+    }
+
+    static void measure(String name, String java, List<String> flags, String[] launch, int runs) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(flags);
+        command.addAll(Arrays.asList(launch));
+
+        run(command); // one unmeasured run to warm the file cache
+        long[] first = new long[runs];
+        long[] exit = new long[runs];
+        for (int r = 0; r < runs; r++) {
+            long start = System.nanoTime();
+            Process p = new ProcessBuilder(command).redirectErrorStream(true).start();
+            try (BufferedReader out = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+                out.readLine();
+                first[r] = System.nanoTime() - start;
+                while (out.readLine() != null) { }
+            }
+            p.waitFor();
+            exit[r] = System.nanoTime() - start;
+        }
+        System.out.printf("%-26s %12.1f %12.1f %12.1f %12.1f%n", name,
+                percentile(first, 50), percentile(first, 90), percentile(exit, 50), percentile(exit, 90));
+    }
+
+    static double percentile(long[] nanos, int p) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * p / 100)] / 1e6;
+    }
+
+    static void run(List<String> command) throws Exception {
+        Process p = new ProcessBuilder(command).inheritIO().start();
+        if (p.waitFor() != 0) throw new IOException(String.join(" ", command) + " exited with " + p.exitValue());
+    }
+}
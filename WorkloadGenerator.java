@@ -0,0 +1,401 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Seeded generator of synthetic inputs for benchmarks and soak tests.
+// Emits ArrayLex declarations (int[] x = {...};) or EzLang programs shaped
+// like tc.txt, from a few KB up to many GB. Output is streamed, so memory use
+// does not grow with the target size. Same seed and options = same bytes.
+//
+// Usage: java WorkloadGenerator <arraylex|ezlang> <size> [options]
+//   size                 bytes, with optional K/M/G suffix (e.g. 64K, 2G)
+//   --seed N             random seed (default 1)
+//   --literal N          average list literal length (default 8)
+//   --depth N            maximum loop/if nesting depth (default 3)
+//   --churn F            chance that a name is new instead of reused (default 0.3)
+//   --errors F           chance that a statement carries an error (default 0)
+//   --out FILE           write to FILE instead of stdout
+//
+// Valid EzLang output only uses names, list indexes and loop bounds that the
+// interpreter accepts; programs larger than its MAX_TOKENS/MAX_VARS limits
+// are still meant for the tokenizer and lexers.
+public class WorkloadGenerator {
+
+    // === SHAPE ===
+    private final SplittableRandom random;
+    private final int literalLength;
+    private final int maxDepth;
+    private final double churn;
+    private final double errorRate;
+
+    // === OUTPUT ===
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder();
+    private long written = 0;
+
+    // === NAME POOLS (only the most recent POOL_SIZE names are reused) ===
+    private static final int POOL_SIZE = 1024;
+    private int nextName = 0;
+    private final List<String> arrayNames = new ArrayList<>();
+    private final List<String> listNames = new ArrayList<>();
+    private final List<Integer> listLengths = new ArrayList<>();
+    private final List<String> numNames = new ArrayList<>();
+    private final List<String> loopNames = new ArrayList<>();
+
+    // Loop variables of the enclosing loops and their trip counts
+    private final List<String> openLoops = new ArrayList<>();
+    private final List<Integer> openTrips = new ArrayList<>();
+
+    // Error kinds injected into invalid output
+    private static final String[] ARRAY_ERRORS = {
+        "UNKNOWN_CHARACTER", "MISSING_SEMICOLON", "UNCLOSED_BRACE", "MISSING_EQUALS", "NUMBER_OVERFLOW"
+    };
+    private static final String[] EZ_ERRORS = {
+        "UNKNOWN_CHARACTER", "UNKNOWN_COMMAND", "MISSING_ASSIGN", "BAD_LIST_ITEM", "NUMBER_OVERFLOW", "UNCLOSED_STRING"
+    };
+
+    public WorkloadGenerator(Writer out, long seed, int literalLength, int maxDepth, double churn, double errorRate) {
+        this.out = out;
+        this.random = new SplittableRandom(seed);
+        this.literalLength = Math.max(1, literalLength);
+        this.maxDepth = Math.max(0, maxDepth);
+        this.churn = churn;
+        this.errorRate = errorRate;
+    }
+
+    // === ARRAYLEX ===
+
+    public void arrayLex(long targetBytes) throws IOException {
+        while (written < targetBytes) {
+            String error = errorRate > 0 && random.nextDouble() < errorRate
+                    ? ARRAY_ERRORS[random.nextInt(ARRAY_ERRORS.length)] : null;
+            String name = pickName(arrayNames);
+
+            line.append("int[] ").append(name);
+            line.append("MISSING_EQUALS".equals(error) ? " {" : " = {");
+            int count = literalCount();
+            int bad = random.nextInt(count);
+            for (int k = 0; k < count; k++) {
+                if (k > 0) line.append(", ");
+                if (k == bad && "NUMBER_OVERFLOW".equals(error)) line.append(overflowNumber());
+                else line.append(random.nextInt(100000));
+                if (k == bad && "UNKNOWN_CHARACTER".equals(error)) line.append(unknownCharacter());
+            }
+            if (!"UNCLOSED_BRACE".equals(error)) line.append('}');
+            if (!"MISSING_SEMICOLON".equals(error)) line.append(';');
+            emit();
+        }
+    }
+
+    // === EZLANG ===
+
+    public void ezLang(long targetBytes) throws IOException {
+        line.append("print \"--- Generated Workload ---\"");
+        emit();
+        while (written < targetBytes) {
+            // Keep at least one list and one number around to refer to
+            if (listNames.isEmpty() || random.nextInt(4) == 0) makeList(0);
+            else if (numNames.isEmpty() || random.nextInt(4) == 0) makeNum(0);
+            else statement(0);
+        }
+    }
+
+    private void statement(int depth) throws IOException {
+        int choice = random.nextInt(depth < maxDepth ? 6 : 4);
+        String error = errorRate > 0 && random.nextDouble() < errorRate
+                ? EZ_ERRORS[random.nextInt(EZ_ERRORS.length)] : null;
+        // Re-draw until the shape can carry the error; 'print <operand>' carries all
+        while (!carries(choice, error)) choice = random.nextInt(depth < maxDepth ? 6 : 4);
+
+        if ("UNKNOWN_COMMAND".equals(error)) {
+            indent(depth).append("frobnicate ").append(pickExisting(numNames));
+            emit();
+            return;
+        }
+        if ("UNCLOSED_STRING".equals(error)) {
+            indent(depth).append("print \"never closed");
+            emit();
+            return;
+        }
+        if ("MISSING_ASSIGN".equals(error) || "BAD_LIST_ITEM".equals(error)) {
+            if ("MISSING_ASSIGN".equals(error)) makeNum(depth, error);
+            else makeList(depth, error);
+            return;
+        }
+
+        switch (choice) {
+            case 0:
+                indent(depth).append("print \"").append(words()).append('"');
+                emit();
+                break;
+            case 1:
+                indent(depth).append("print ");
+                operand(error);
+                emit();
+                break;
+            case 2:
+                setElement(depth, error);
+                break;
+            case 3:
+                indent(depth).append("print ");
+                builtin();
+                emit();
+                break;
+            case 4:
+                ifBlock(depth, error);
+                break;
+            default:
+                loopBlock(depth, error);
+                break;
+        }
+    }
+
+    // The operand of 'print' and 'if' takes both kinds; 'set' only gets an
+    // unknown character, a loop bound only an overflow
+    private static boolean carries(int choice, String error) {
+        if ("NUMBER_OVERFLOW".equals(error)) return choice == 1 || choice == 4 || choice == 5;
+        if ("UNKNOWN_CHARACTER".equals(error)) return choice == 1 || choice == 2 || choice == 4;
+        return true;
+    }
+
+    private void makeNum(int depth) throws IOException { makeNum(depth, null); }
+
+    private void makeNum(int depth, String error) throws IOException {
+        String name = newName();
+        indent(depth).append("make num ").append(name).append("MISSING_ASSIGN".equals(error) ? " = " : " := ");
+        line.append(random.nextInt(1, literalLength + 1));
+        emit();
+        remember(numNames, name);
+    }
+
+    private void makeList(int depth) throws IOException { makeList(depth, null); }
+
+    private void makeList(int depth, String error) throws IOException {
+        String name = newName();
+        int count = literalCount();
+        int bad = random.nextInt(count);
+        indent(depth).append("make list ").append(name).append(" := [");
+        for (int k = 0; k < count; k++) {
+            if (k > 0) line.append(", ");
+            if (k == bad && "BAD_LIST_ITEM".equals(error)) line.append(pickExisting(numNames));
+            else line.append(random.nextInt(100));
+        }
+        line.append(']');
+        emit();
+        if (listNames.size() == POOL_SIZE) { listNames.remove(0); listLengths.remove(0); }
+        listNames.add(name);
+        listLengths.add(count);
+    }
+
+    private void ifBlock(int depth, String error) throws IOException {
+        indent(depth).append("if (");
+        operand(error);
+        line.append(' ').append(random.nextInt(3) == 0 ? "==" : random.nextBoolean() ? ">" : "<").append(' ');
+        line.append(random.nextInt(100));
+        line.append(") {");
+        emit();
+        block(depth + 1);
+        indent(depth).append('}');
+        emit();
+    }
+
+    private void loopBlock(int depth, String error) throws IOException {
+        String var = pickLoopName();
+        int trips = random.nextInt(1, literalLength + 1);
+        indent(depth).append("loop ").append(var).append(" from 0 to ");
+        if ("NUMBER_OVERFLOW".equals(error)) line.append(overflowNumber());
+        else line.append(trips);
+        line.append(" {");
+        emit();
+        openLoops.add(var);
+        openTrips.add(trips);
+        block(depth + 1);
+        openLoops.remove(openLoops.size() - 1);
+        openTrips.remove(openTrips.size() - 1);
+        indent(depth).append('}');
+        emit();
+    }
+
+    private void block(int depth) throws IOException {
+        int count = random.nextInt(1, 4);
+        for (int k = 0; k < count; k++) statement(depth);
+    }
+
+    private void setElement(int depth, String error) throws IOException {
+        int l = random.nextInt(listNames.size());
+        indent(depth).append("set ").append(listNames.get(l)).append('[');
+        index(listLengths.get(l));
+        line.append("] := ").append(random.nextInt(100));
+        if ("UNKNOWN_CHARACTER".equals(error)) line.append(unknownCharacter());
+        emit();
+    }
+
+    // A number, a num variable, a list element or a builtin call
+    private void operand(String error) {
+        if ("NUMBER_OVERFLOW".equals(error)) { line.append(overflowNumber()); return; }
+        if ("UNKNOWN_CHARACTER".equals(error)) { line.append(unknownCharacter()); return; }
+        switch (random.nextInt(4)) {
+            case 0: line.append(random.nextInt(100)); break;
+            case 1: line.append(pickExisting(numNames)); break;
+            case 2: {
+                int l = random.nextInt(listNames.size());
+                line.append(listNames.get(l)).append('[');
+                index(listLengths.get(l));
+                line.append(']');
+                break;
+            }
+            default: builtin(); break;
+        }
+    }
+
+    private void builtin() {
+        String list = listNames.get(random.nextInt(listNames.size()));
+        switch (random.nextInt(4)) {
+            case 0: line.append("sum(").append(list).append(')'); break;
+            case 1: line.append("min(").append(list).append(')'); break;
+            case 2: line.append("max(").append(list).append(')'); break;
+            default: line.append("count(").append(list).append(" > ").append(random.nextInt(100)).append(')'); break;
+        }
+    }
+
+    // An index that is in bounds: a loop variable whose trip count fits, or a literal
+    private void index(int length) {
+        for (int k = openLoops.size() - 1; k >= 0; k--) {
+            if (openTrips.get(k) <= length && random.nextBoolean()) {
+                line.append(openLoops.get(k));
+                return;
+            }
+        }
+        line.append(random.nextInt(length));
+    }
+
+    // === NAMES ===
+
+    private String newName() {
+        return "v" + nextName++;
+    }
+
+    // ArrayLex may redeclare: reuse a recent name unless churn asks for a new one
+    private String pickName(List<String> pool) {
+        if (pool.isEmpty() || random.nextDouble() < churn) {
+            String name = "arr" + nextName++;
+            remember(pool, name);
+            return name;
+        }
+        return pool.get(random.nextInt(pool.size()));
+    }
+
+    private String pickExisting(List<String> pool) {
+        return pool.isEmpty() ? "0" : pool.get(random.nextInt(pool.size()));
+    }
+
+    // Loop variables may be reused, but never one of the enclosing loops'
+    private String pickLoopName() {
+        if (!loopNames.isEmpty() && random.nextDouble() >= churn) {
+            String name = loopNames.get(random.nextInt(loopNames.size()));
+            if (!openLoops.contains(name)) return name;
+        }
+        String name = "i" + nextName++;
+        remember(loopNames, name);
+        return name;
+    }
+
+    private void remember(List<String> pool, String name) {
+        if (pool.size() == POOL_SIZE) pool.remove(0);
+        pool.add(name);
+    }
+
+    // === PIECES ===
+
+    private int literalCount() {
+        return random.nextInt(1, 2 * literalLength);
+    }
+
+    private String overflowNumber() {
+        return "9" + (1000000000L + random.nextLong(9000000000L));
+    }
+
+    private char unknownCharacter() {
+        return "@#$%`~?".charAt(random.nextInt(7));
+    }
+
+    private static final String[] WORDS = { "Index", "value", "LARGE NUMBER FOUND", "small number", "Age", "Year", "done" };
+
+    private String words() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private StringBuilder indent(int depth) {
+        for (int k = 0; k < depth; k++) line.append("    ");
+        return line;
+    }
+
+    // Everything generated is ASCII, so chars == bytes
+    private void emit() throws IOException {
+        line.append('\n');
+        out.append(line);
+        written += line.length();
+        line.setLength(0);
+    }
+
+    public long bytesWritten() {
+        return written;
+    }
+
+    // === COMMAND LINE ===
+
+    static long parseSize(String s) {
+        char unit = Character.toUpperCase(s.charAt(s.length() - 1));
+        long scale = unit == 'K' ? 1L << 10 : unit == 'M' ? 1L << 20 : unit == 'G' ? 1L << 30 : 1;
+        String digits = scale == 1 ? s : s.substring(0, s.length() - 1);
+        return Long.parseLong(digits) * scale;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || !(args[0].equals("arraylex") || args[0].equals("ezlang"))) {
+            System.err.println("Usage: java WorkloadGenerator <arraylex|ezlang> <size[K|M|G]> [--seed N] [--literal N]"
+                    + " [--depth N] [--churn F] [--errors F] [--out FILE]");
+            System.exit(2);
+        }
+        long size = parseSize(args[1]);
+        long seed = 1;
+        int literal = 8, depth = 3;
+        double churn = 0.3, errors = 0;
+        String file = null;
+        for (int a = 2; a < args.length; a += 2) {
+            if (a + 1 == args.length) {
+                System.err.println("Missing value for option " + args[a]);
+                System.exit(2);
+            }
+            switch (args[a]) {
+                case "--seed": seed = Long.parseLong(args[a+1]); break;
+                case "--literal": literal = Integer.parseInt(args[a+1]); break;
+                case "--depth": depth = Integer.parseInt(args[a+1]); break;
+                case "--churn": churn = Double.parseDouble(args[a+1]); break;
+                case "--errors": errors = Double.parseDouble(args[a+1]); break;
+                case "--out": file = args[a+1]; break;
+                default:
+                    System.err.println("Unknown option " + args[a]);
+                    System.exit(2);
+            }
+        }
+
+        Writer out = file == null
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII), 1 << 16)
+                : Files.newBufferedWriter(Paths.get(file), StandardCharsets.US_ASCII);
+        try {
+            WorkloadGenerator gen = new WorkloadGenerator(out, seed, literal, depth, churn, errors);
+            if (args[0].equals("arraylex")) gen.arrayLex(size);
+            else gen.ezLang(size);
+        } finally {
+            out.close();
+        }
+    }
+}